@@ -12,6 +12,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.Book.service.JWTService;
 import com.example.Book.service.MyUserDetailsService;
+import com.example.Book.service.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -27,12 +30,16 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private MyUserDetailsService myUserDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
         String token = null;
+        Claims claims = null;
         String username = null;
 
         try {
@@ -40,7 +47,13 @@ public class JwtFilter extends OncePerRequestFilter {
                 token = authHeader.substring(7).trim();
                 if (!token.isEmpty()) {
                     try {
-                        username = jwtService.extractUserName(token);
+                        claims = jwtService.verifyToken(token);
+                        username = claims.getSubject();
+                        if (tokenRevocationService.isRevoked(claims)) {
+                            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                            response.getWriter().write("Token has been revoked");
+                            return;
+                        }
                         System.out.println("JWT Token Extracted: " + token.substring(0, Math.min(token.length(), 10)) + "...");
                         System.out.println("Username Extracted: " + username);
                     } catch (Exception e) {
@@ -59,7 +72,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = myUserDetailsService.loadUserByUsername(username);
-                if (jwtService.validateToken(token, userDetails)) {
+                if (jwtService.validateToken(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,116 @@
+package com.example.Book.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.Book.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Per-client, per-route token buckets in front of the public /auth and /api endpoints.
+// Policies are "pattern=capacity/period" entries; the first pattern matching the path applies.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Policy(String pattern, long capacity, long periodNanos, Counter throttled) {
+    }
+
+    private record BucketKey(String client, String pattern) {
+    }
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Policy> policies = new ArrayList<>();
+    // Bounded, so a flood of client addresses evicts buckets instead of growing the heap. A bucket
+    // idle for the longest period has refilled completely and carries no state worth keeping.
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final boolean enabled;
+
+    public RateLimitFilter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.policies:/auth/**=30/1m,/api/**=300/1m}") List<String> policies,
+                           @Value("${rate-limit.max-buckets:100000}") int maxBuckets,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        long longestPeriodNanos = 0;
+        for (String entry : policies) {
+            Policy policy = parsePolicy(entry.trim(), meterRegistry);
+            this.policies.add(policy);
+            longestPeriodNanos = Math.max(longestPeriodNanos, policy.periodNanos());
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofNanos(longestPeriodNanos))
+                .build();
+        Gauge.builder("ratelimit.buckets", buckets, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    private static Policy parsePolicy(String entry, MeterRegistry meterRegistry) {
+        int eq = entry.lastIndexOf('=');
+        int slash = entry.lastIndexOf('/');
+        if (eq < 0 || slash < eq) {
+            throw new IllegalArgumentException("Invalid rate limit policy '" + entry + "', expected pattern=capacity/period");
+        }
+        String pattern = entry.substring(0, eq).trim();
+        long capacity = Long.parseLong(entry.substring(eq + 1, slash).trim());
+        Duration period = DurationStyle.detectAndParse(entry.substring(slash + 1).trim());
+        Counter throttled = Counter.builder("ratelimit.throttled")
+                .tag("route", pattern)
+                .register(meterRegistry);
+        return new Policy(pattern, capacity, period.toNanos(), throttled);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights are answered by the CorsFilter and never reach a controller
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Policy policy = policyFor(request.getRequestURI().substring(request.getContextPath().length()));
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(request.getRemoteAddr(), policy.pattern()),
+                key -> new TokenBucket(policy.capacity(), policy.periodNanos(), now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            policy.throttled().increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+            response.getWriter().write("Too many requests");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Policy policyFor(String path) {
+        for (Policy policy : policies) {
+            if (pathMatcher.match(policy.pattern(), path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+}
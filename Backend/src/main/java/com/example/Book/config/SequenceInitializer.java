@@ -0,0 +1,73 @@
+package com.example.Book.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// The pooled id generators replaced AUTO_INCREMENT columns that already hold rows. MySQL has no
+// sequences, so Hibernate keeps each one in a single-row <name>_seq table starting at 1; this moves
+// every sequence past the highest existing id before the first insert can use it. A sequence that
+// cannot be aligned would hand out ids that are already taken, so startup fails instead.
+@Component
+public class SequenceInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceInitializer.class);
+
+    private record Sequence(String name, String table, String idColumn) {
+    }
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<Sequence> SEQUENCES = List.of(
+            new Sequence("booking_seq", "booking", "booking_id"),
+            new Sequence("schedule_seq", "schedule", "schedule_id"),
+            new Sequence("reminder_seq", "reminder", "reminder_id"),
+            new Sequence("notification_seq", "notification", "notification_id"),
+            new Sequence("booking_outbox_seq", "booking_outbox", "event_id"),
+            new Sequence("slot_hold_seq", "slot_hold", "hold_id"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Injected only so the schema exists (ddl-auto=update) before the sequences are aligned
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        for (Sequence sequence : SEQUENCES) {
+            if (!isTable(sequence.name())) {
+                // A native sequence (H2 and other databases that have them) is created past the ids by Hibernate
+                logger.debug("{} is not a table; nothing to align", sequence.name());
+                continue;
+            }
+            String nextValue = "(SELECT COALESCE(MAX(" + sequence.idColumn() + "), 0) FROM " + sequence.table() + ") + "
+                    + (ALLOCATION_SIZE + 1);
+            try {
+                // GREATEST keeps this safe when several nodes start at once
+                int updated = jdbcTemplate.update("UPDATE " + sequence.name() + " SET next_val = GREATEST(next_val, "
+                        + nextValue + ")");
+                if (updated == 0) {
+                    jdbcTemplate.update("INSERT INTO " + sequence.name() + " (next_val) SELECT " + nextValue
+                            + " FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM " + sequence.name() + ")");
+                    logger.info("Initialised empty sequence table {}", sequence.name());
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Could not align sequence " + sequence.name(), e);
+            }
+        }
+    }
+
+    private boolean isTable(String name) {
+        Integer tables = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                + "WHERE LOWER(table_name) = ? AND table_schema = DATABASE()", Integer.class, name);
+        return tables != null && tables > 0;
+    }
+}
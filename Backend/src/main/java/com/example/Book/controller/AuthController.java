@@ -7,13 +7,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.Book.dto.MessageResponse;
+import com.example.Book.dto.PasswordResetRequest;
+import com.example.Book.exception.HashingCapacityException;
 import com.example.Book.model.Consumer;
 import com.example.Book.model.ServiceProvider;
+import com.example.Book.service.JWTService;
+import com.example.Book.service.TokenRevocationService;
 import com.example.Book.service.UserService;
 
+import io.jsonwebtoken.Claims;
+
 
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
@@ -23,12 +31,20 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     // Register Service Provider
     @PostMapping("/service-provider/register")
     public void registerProvider(@RequestBody ServiceProvider provider) {
         try {
             String result = userService.registerServiceProvider(provider);
             ResponseEntity.ok(result);
+        } catch (HashingCapacityException e) {
+            throw e;
         } catch (Exception e) {
             ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
@@ -40,6 +56,8 @@ public class AuthController {
         try {
             String result = userService.registerConsumer(consumer);
             return ResponseEntity.ok(result);
+        } catch (HashingCapacityException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
@@ -59,4 +77,31 @@ public class AuthController {
         return ResponseEntity.ok(Map.of("token", "Bearer " + token));
     }
 
+    // Logout - revoke the presented token so it can no longer be used
+    @PostMapping("/logout")
+    public ResponseEntity<MessageResponse> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body(new MessageResponse("No bearer token provided"));
+        }
+        try {
+            Claims claims = jwtService.verifyToken(authHeader.substring(7));
+            tokenRevocationService.revoke(claims);
+            return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(401).body(new MessageResponse("Invalid token"));
+        }
+    }
+
+    // Change password for both Service Provider and Consumer
+    @PostMapping("/reset-password")
+    public ResponseEntity<MessageResponse> resetPassword(@RequestBody PasswordResetRequest request) {
+        try {
+            return ResponseEntity.ok(new MessageResponse(userService.resetPassword(request)));
+        } catch (HashingCapacityException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Password reset failed: " + e.getMessage()));
+        }
+    }
+
 }
@@ -1,70 +1,432 @@
 package com.example.Book.controller;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
 
 
+import com.example.Book.config.CurrentUser;
+import com.example.Book.dto.AvailabilityDTO;
+import com.example.Book.dto.AvailableServiceDTO;
 import com.example.Book.dto.BookingDTO;
+import com.example.Book.dto.BookingFilterDTO;
+import com.example.Book.dto.BookingPageDTO;
+import com.example.Book.dto.CalendarEntryDTO;
+import com.example.Book.dto.DailyStatsDTO;
+import com.example.Book.dto.GroupBookingDTO;
+import com.example.Book.dto.RecurrenceExceptionDTO;
+import com.example.Book.dto.RecurringAppointmentDTO;
 import com.example.Book.dto.ScheduleDTO;
 import com.example.Book.dto.ServiceDateTimeDTO;
+import com.example.Book.dto.SlotHoldDTO;
+import com.example.Book.model.AuthenticatedUser;
 import com.example.Book.model.Booking;
+import com.example.Book.model.RecurrenceException;
+import com.example.Book.model.RecurringAppointment;
 import com.example.Book.model.Schedule;
+import com.example.Book.model.SlotHold;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import com.example.Book.dto.ServiceProviderDTO;
+import com.example.Book.service.BookingExportService;
 import com.example.Book.service.BookingService;
+import com.example.Book.service.CatalogService;
+import com.example.Book.service.IdempotencyService;
+import com.example.Book.service.ProviderStatsService;
+import com.example.Book.service.RecurrenceService;
+import com.example.Book.service.SlotHoldService;
+import com.example.Book.service.SlotSearchService;
+import com.example.Book.util.BookingCursor;
 
 @RestController
 @RequestMapping("/api/booking")
 @CrossOrigin(origins = "http://localhost:3000")
 public class BookingController {
 
+    private static final int MAX_CATALOG_PAGE_SIZE = 200;
+    private static final int MAX_BOOKING_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_DAYS = 31;
+    private static final int MAX_CALENDAR_DAYS = 92;
+    private static final int MAX_STATS_DAYS = 366;
+    private static final int MAX_SCHEDULE_DAYS = 92;
+    private static final int MAX_SCHEDULE_PAGE_SIZE = 200;
+
+    // Request sort names mapped to ServiceProvider fields
+    private static final Map<String, String> CATALOG_SORT_PROPERTIES = Map.of(
+            "providerId", "provider_id",
+            "username", "username",
+            "experience", "experience",
+            "address", "address");
+
+    @Value("${booking.bulk.max-size:500}")
+    private int maxBulkSize;
+
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private SlotSearchService slotSearchService;
+
+    @Autowired
+    private RecurrenceService recurrenceService;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ProviderStatsService providerStatsService;
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    // The caller's bookings in time order, a page at a time; pass the previous page's nextCursor to continue
     @GetMapping("/all")
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<BookingPageDTO> getAllBookings(
+            @CurrentUser AuthenticatedUser currentUser,
+            @RequestParam(required = false) Long providerId,
+            @RequestParam(required = false) Long consumerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > MAX_BOOKING_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        BookingCursor after;
+        try {
+            after = cursor == null ? null : BookingCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        BookingFilterDTO filter = bookingService.scopeToCaller(currentUser,
+                new BookingFilterDTO(providerId, consumerId, from, to, status));
+        return ResponseEntity.ok(bookingService.getBookingPage(filter, after, size));
     }
 
+    // Every matching booking of the caller as NDJSON or CSV, streamed straight from a database cursor
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @CurrentUser AuthenticatedUser currentUser,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long providerId,
+            @RequestParam(required = false) Long consumerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Boolean status) {
+        BookingExportService.Format exportFormat;
+        try {
+            exportFormat = BookingExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Checked before the response is committed, so a refusal still gets its status
+        BookingFilterDTO filter = bookingService.scopeToCaller(currentUser,
+                new BookingFilterDTO(providerId, consumerId, from, to, status));
+        boolean csv = exportFormat == BookingExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=bookings." + (csv ? "csv" : "ndjson"))
+                .body(out -> bookingExportService.export(filter, exportFormat, out));
+    }
+
+    // The plain catalog is served from the in-memory snapshot; paged or filtered requests go to the
+    // database and carry the total in X-Total-Count
     @GetMapping("/providers")
-    public ResponseEntity<List<ServiceProviderDTO>> getAllServiceProvidersWithServices() {
-        List<ServiceProviderDTO> providers = bookingService.getAllServiceProvidersWithServices();
-        return ResponseEntity.ok(providers);
+    public ResponseEntity<?> getAllServiceProvidersWithServices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "providerId") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        String property = CATALOG_SORT_PROPERTIES.get(sort);
+        if (property == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+        boolean unpaged = page == null && size == null;
+        if (unpaged && category == null && "provider_id".equals(property) && sortDirection.isAscending()) {
+            return catalogSnapshot(ifNoneMatch, acceptEncoding);
+        }
+
+        Sort order = Sort.by(sortDirection, property);
+        if (!"provider_id".equals(property)) {
+            order = order.and(Sort.by("provider_id"));
+        }
+        if (unpaged) {
+            Page<ServiceProviderDTO> all = bookingService.getServiceProviderCatalog(category, Pageable.unpaged(order));
+            return ResponseEntity.ok(all.getContent());
+        }
+        int pageSize = Math.min(Math.max(size == null ? 20 : size, 1), MAX_CATALOG_PAGE_SIZE);
+        Page<ServiceProviderDTO> providers = bookingService.getServiceProviderCatalog(category,
+                PageRequest.of(Math.max(page == null ? 0 : page, 0), pageSize, order));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(providers.getTotalElements()))
+                .body(providers.getContent());
     }
 
+    // Answered from memory without touching Hibernate or Jackson
+    private ResponseEntity<byte[]> catalogSnapshot(String ifNoneMatch, String acceptEncoding) {
+        CatalogService.Snapshot snapshot = catalogService.current();
+        if (ifNoneMatch != null && (ifNoneMatch.contains(snapshot.etag()) || "*".equals(ifNoneMatch.trim()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .header("X-Catalog-Version", String.valueOf(snapshot.version()))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    // A provider's schedule for `days` days from `from` (today by default), e.g. the next two weeks or
+    // one week with days=7. Pages carry the total in X-Total-Count.
     @GetMapping("/provider/{providerId}")
-    public ResponseEntity<List<ScheduleDTO>> getSchedulesByProviderId(@PathVariable Long providerId) {
-        List<ScheduleDTO> schedules = bookingService.getSchedulesByProviderId(providerId);
-        return ResponseEntity.ok(schedules);
+    public ResponseEntity<List<ScheduleDTO>> getSchedulesByProviderId(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (!validScheduleRange(days, page, size)) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime start = (from == null ? LocalDate.now() : from).atStartOfDay();
+        Page<ScheduleDTO> schedules = bookingService.getSchedulesByProviderId(providerId, start, start.plusDays(days),
+                PageRequest.of(page, size));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(schedules.getTotalElements()))
+                .body(schedules.getContent());
     }
 
+    // With an Idempotency-Key, a retried request gets the stored response instead of a second booking
     @PostMapping("/addBooking")
-    public ResponseEntity<Booking> createBooking(@RequestBody BookingDTO requestDTO) {
-        Booking savedBooking = bookingService.saveBooking(requestDTO);
+    public ResponseEntity<?> createBooking(@RequestBody BookingDTO requestDTO,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                           Principal principal) {
+        if (idempotencyKey == null) {
+            Booking savedBooking = bookingService.saveBooking(requestDTO);
+            return new ResponseEntity<>(savedBooking, HttpStatus.CREATED);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+            return ResponseEntity.badRequest().build();
+        }
+        String scope = "addBooking:" + (principal != null ? principal.getName() : "anonymous");
+        IdempotencyService.Result result = idempotencyService.execute(scope, idempotencyKey, requestDTO,
+                HttpStatus.CREATED, () -> bookingService.saveBooking(requestDTO));
+        return ResponseEntity.status(result.statusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.body());
+    }
+
+    // Frees the slot for others; 403 unless it is the caller's booking, 409 if it is already cancelled
+    @PutMapping("/{bookingId}/cancel")
+    public ResponseEntity<Booking> cancelBooking(@CurrentUser AuthenticatedUser currentUser, @PathVariable Long bookingId) {
+        return ResponseEntity.ok(bookingService.cancelBooking(bookingId, currentUser));
+    }
+
+    // Keeps a slot for the consumer during checkout; book it with addBooking and the holdId, or confirm it
+    @PostMapping("/holds")
+    public ResponseEntity<SlotHold> holdSlot(@RequestBody SlotHoldDTO requestDTO) {
+        return new ResponseEntity<>(slotHoldService.hold(requestDTO), HttpStatus.CREATED);
+    }
+
+    // Books the held slot for the consumer holding it; 403 for anyone else, 409 once the hold has expired
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<Booking> confirmHold(@CurrentUser AuthenticatedUser currentUser, @PathVariable Long holdId) {
+        SlotHold hold = slotHoldService.getHold(holdId, currentUser);
+        Booking savedBooking = bookingService.saveBooking(new BookingDTO(hold.getConsumerId().intValue(),
+                hold.getServiceId(), null, hold.getStartTime(), true, holdId));
         return new ResponseEntity<>(savedBooking, HttpStatus.CREATED);
     }
 
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@CurrentUser AuthenticatedUser currentUser, @PathVariable Long holdId) {
+        slotHoldService.release(holdId, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Creates a group session with its leader's booking; others join through addBooking with the groupId
+    @PostMapping("/groups")
+    public ResponseEntity<Booking> createGroupBooking(@RequestBody GroupBookingDTO requestDTO) {
+        Booking leaderBooking = bookingService.createGroupBooking(requestDTO);
+        return new ResponseEntity<>(leaderBooking, HttpStatus.CREATED);
+    }
+
+    // Books every slot or none; 409 if any of them is taken
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Booking>> createBookings(@RequestBody List<BookingDTO> requestDTOs) {
+        if (requestDTOs.isEmpty() || requestDTOs.size() > maxBulkSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Booking> savedBookings = bookingService.saveBookings(requestDTOs);
+        return new ResponseEntity<>(savedBookings, HttpStatus.CREATED);
+    }
+
+    // Whether the slot at dateTime is free for this service, and the next free slot from then on
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityDTO> checkAvailability(
+            @RequestParam Integer serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateTime) {
+        return ResponseEntity.ok(bookingService.checkAvailability(serviceId, dateTime));
+    }
+
+    // Services in a category with open slots of the given length between two dates (inclusive)
+    @GetMapping("/search")
+    public ResponseEntity<List<AvailableServiceDTO>> searchFreeSlots(
+            @RequestParam(required = false) String category,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "30") int duration,
+            @RequestParam(defaultValue = "5") int slots,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) > MAX_SEARCH_DAYS || duration <= 0 || duration > 24 * 60) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(slotSearchService.search(category, from, to, Duration.ofMinutes(duration),
+                Math.min(Math.max(slots, 1), 50), Math.min(Math.max(limit, 1), 500)));
+    }
+
+    // Repeats an existing booking; occurrences are generated on demand rather than stored
+    @PostMapping("/recurring")
+    public ResponseEntity<RecurringAppointment> createRecurringAppointment(@RequestBody RecurringAppointmentDTO requestDTO) {
+        RecurringAppointment series = recurrenceService.createSeries(requestDTO);
+        return new ResponseEntity<>(series, HttpStatus.CREATED);
+    }
+
+    // Cancels or moves a single occurrence of a recurring appointment
+    @PostMapping("/recurring/exceptions")
+    public ResponseEntity<RecurrenceException> addRecurrenceException(@RequestBody RecurrenceExceptionDTO requestDTO) {
+        RecurrenceException exception = recurrenceService.addException(requestDTO);
+        return new ResponseEntity<>(exception, HttpStatus.CREATED);
+    }
+
+    // Bookings and recurring occurrences of a provider starting in [from, to), in time order
+    @GetMapping("/calendar/{providerId}")
+    public ResponseEntity<List<CalendarEntryDTO>> getCalendar(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!to.isAfter(from) || ChronoUnit.DAYS.between(from, to) > MAX_CALENDAR_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (Stream<CalendarEntryDTO> entries = recurrenceService.calendar(providerId, from, to)) {
+            return ResponseEntity.ok(entries.toList());
+        }
+    }
+
+    // Booking counts and revenue of a provider between two dates (inclusive), per service and day or
+    // summed by day or by service. Read from the daily rollup; per-row results span at most a year.
+    @GetMapping("/stats/{providerId}")
+    public ResponseEntity<List<DailyStatsDTO>> getProviderStats(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "none") String groupBy) {
+        ProviderStatsService.Grouping grouping;
+        try {
+            grouping = ProviderStatsService.Grouping.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (to.isBefore(from) || (grouping == ProviderStatsService.Grouping.NONE
+                && ChronoUnit.DAYS.between(from, to) >= MAX_STATS_DAYS)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(providerStatsService.getStats(providerId, from, to, grouping));
+    }
+
     @PostMapping("/addSchedule")
     public ResponseEntity<Schedule> createSchedule(@RequestBody ScheduleDTO scheduleDTO) {
         Schedule savedSchedule = bookingService.createSchedule(scheduleDTO);
         return new ResponseEntity<>(savedSchedule, HttpStatus.CREATED);
     }
 
+    // Service windows starting in the same kind of range as the schedule above
     @GetMapping("/service-datetime/{providerId}")
-    public List<ServiceDateTimeDTO> getServiceDateTimesByProviderId(@PathVariable Long providerId) {
-        return bookingService.getServiceDateTimeByProviderId(providerId);
+    public ResponseEntity<List<ServiceDateTimeDTO>> getServiceDateTimesByProviderId(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (!validScheduleRange(days, page, size)) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime start = (from == null ? LocalDate.now() : from).atStartOfDay();
+        Page<ServiceDateTimeDTO> windows = bookingService.getServiceDateTimeByProviderId(providerId, start,
+                start.plusDays(days), PageRequest.of(page, size));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(windows.getTotalElements()))
+                .body(windows.getContent());
+    }
+
+    // Service windows of one day, or of the Monday-to-Sunday week containing it
+    @GetMapping("/service-datetime/{providerId}/day")
+    public List<ServiceDateTimeDTO> getServiceDateTimesForDay(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return bookingService.getServiceDateTimesForDay(providerId, date);
+    }
+
+    @GetMapping("/service-datetime/{providerId}/week")
+    public List<ServiceDateTimeDTO> getServiceDateTimesForWeek(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return bookingService.getServiceDateTimesForWeek(providerId, date);
+    }
+
+    private static boolean validScheduleRange(int days, int page, int size) {
+        return days >= 1 && days <= MAX_SCHEDULE_DAYS && page >= 0 && size >= 1 && size <= MAX_SCHEDULE_PAGE_SIZE;
     }
 
 }
\ No newline at end of file
@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.Book.model.Consumer;
 import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.service.IdentityService;
+import com.example.Book.service.MyUserDetailsService;
 
 @RestController
 @RequestMapping("/api/consumer")
@@ -26,6 +28,12 @@ public class ConsumerController {
     @Autowired
     private ConsumerRepository consumerRepository;
 
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
+
+    @Autowired
+    private IdentityService identityService;
+
     // Get consumer by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getConsumerById(@PathVariable Long id) {
@@ -86,6 +94,7 @@ public class ConsumerController {
             
             if (consumerOpt.isPresent()) {
                 Consumer consumer = consumerOpt.get();
+                String previousEmail = consumer.getEmail();
                 
                 // Update fields if provided in the request
                 if (consumerDetails.getUsername() != null) {
@@ -114,7 +123,10 @@ public class ConsumerController {
                 
                 // Don't update password from this endpoint for security reasons
                 
+                identityService.changeEmail(previousEmail, consumer.getEmail());
                 Consumer updatedConsumer = consumerRepository.save(consumer);
+                myUserDetailsService.evictPrincipal(previousEmail);
+                myUserDetailsService.evictPrincipal(updatedConsumer.getEmail());
                 return ResponseEntity.ok(updatedConsumer);
             } else {
                 Map<String, String> response = new HashMap<>();
@@ -4,18 +4,21 @@ import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.Book.config.CurrentUser;
+import com.example.Book.model.AuthenticatedUser;
 import com.example.Book.model.ServiceProvider;
 import com.example.Book.repo.ServiceProviderRepository;
-import com.example.Book.service.JWTService;
+import com.example.Book.service.CatalogService;
+import com.example.Book.service.MyUserDetailsService;
 
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
@@ -26,28 +29,25 @@ public class ServiceProviderController {
     private ServiceProviderRepository serviceProviderRepository;
 
     @Autowired
-    private JWTService jwtService;
+    private MyUserDetailsService myUserDetailsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getServiceProviderProfile(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getServiceProviderProfile(@CurrentUser AuthenticatedUser currentUser) {
         try {
-            if (token == null || token.isEmpty()) {
+            if (currentUser == null) {
                 return ResponseEntity.status(401).body("No authorization token provided");
             }
-
-            // Remove "Bearer " prefix if present
-            String actualToken = token.startsWith("Bearer ") ? token.substring(7) : token;
-            
-            // Extract email from token
-            String userEmail = jwtService.extractUserName(actualToken);
-            if (userEmail == null || userEmail.isEmpty()) {
-                return ResponseEntity.status(401).body("Invalid token: Could not extract email");
-            }
             
-            System.out.println("Fetching profile for email: " + userEmail);
+            System.out.println("Fetching profile for email: " + currentUser.getUsername());
             
-            // Find service provider by email
-            Optional<ServiceProvider> provider = serviceProviderRepository.findByEmail(userEmail);
+            // JwtFilter already resolved the account; load it by primary key
+            Optional<ServiceProvider> provider = currentUser.isServiceProvider()
+                    ? serviceProviderRepository.findById(currentUser.getId())
+                    : Optional.empty();
             
             if (provider.isPresent()) {
                 ServiceProvider sp = provider.get();
@@ -67,7 +67,7 @@ public class ServiceProviderController {
                 return ResponseEntity.ok(response);
             }
             
-            System.out.println("No provider found for email: " + userEmail);
+            System.out.println("No provider found for email: " + currentUser.getUsername());
             return ResponseEntity.status(404).body("Service provider not found");
         } catch (Exception e) {
             System.err.println("Error in getServiceProviderProfile: " + e.getMessage());
@@ -78,33 +78,22 @@ public class ServiceProviderController {
 
     @PutMapping("/profile")
     public ResponseEntity<?> updateServiceProviderProfile(
-            @RequestHeader("Authorization") String token,
+            @CurrentUser AuthenticatedUser currentUser,
             @RequestBody Map<String, Object> profileData) {
         try {
             System.out.println("Received profile update request with data: " + profileData);
             
-            if (token == null || token.isEmpty()) {
+            if (currentUser == null) {
                 System.out.println("No authorization token provided");
                 return ResponseEntity.status(401).body("No authorization token provided");
             }
 
-            // Remove "Bearer " prefix if present
-            String actualToken = token.startsWith("Bearer ") ? token.substring(7) : token;
-            System.out.println("Processing token: " + actualToken.substring(0, Math.min(actualToken.length(), 10)) + "...");
-            
-            // Extract email from token
-            String userEmail = jwtService.extractUserName(actualToken);
-            System.out.println("Extracted email from token: " + userEmail);
-            
-            if (userEmail == null || userEmail.isEmpty()) {
-                System.out.println("Invalid token: Could not extract email");
-                return ResponseEntity.status(401).body("Invalid token: Could not extract email");
-            }
-
-            // Find service provider by email
-            Optional<ServiceProvider> providerOpt = serviceProviderRepository.findByEmail(userEmail);
+            // JwtFilter already resolved the account; load it by primary key
+            Optional<ServiceProvider> providerOpt = currentUser.isServiceProvider()
+                    ? serviceProviderRepository.findById(currentUser.getId())
+                    : Optional.empty();
             if (!providerOpt.isPresent()) {
-                System.out.println("Service provider not found for email: " + userEmail);
+                System.out.println("Service provider not found for email: " + currentUser.getUsername());
                 return ResponseEntity.status(404).body("Service provider not found");
             }
 
@@ -163,6 +152,8 @@ public class ServiceProviderController {
                 // Save the updated provider
                 System.out.println("Attempting to save updated provider data");
                 ServiceProvider updatedProvider = serviceProviderRepository.save(provider);
+                myUserDetailsService.evictPrincipal(updatedProvider.getEmail());
+                eventPublisher.publishEvent(new CatalogService.ProviderChanged(updatedProvider.getProvider_id()));
                 System.out.println("Successfully saved provider data");
 
                 // Return the updated profile
@@ -0,0 +1,18 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDTO {
+    private Integer serviceId;
+    private LocalDateTime requestedDateTime;
+    private Integer durationMinutes;
+    private Boolean available;
+    private LocalDateTime nextAvailableDateTime;
+}
@@ -0,0 +1,21 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One service with open slots, as returned by the free-slot search
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableServiceDTO {
+    private Long providerId;
+    private String providerName;
+    private Integer serviceId;
+    private String serviceName;
+    private String category;
+    private List<LocalDateTime> openSlots;
+}
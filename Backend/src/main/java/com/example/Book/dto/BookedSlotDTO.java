@@ -0,0 +1,18 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Minimal view of an active booking, used to build the availability index
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookedSlotDTO {
+    private Long providerId;
+    private Long bookingId;
+    private Integer serviceId;
+    private LocalDateTime bookingDateTime;
+}
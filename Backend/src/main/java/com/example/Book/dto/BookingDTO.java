@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 public class BookingDTO {
     private Integer consumerId;
     private Integer serviceId;
-    //private Integer groupId;  // Optional, can be null
+    private Integer groupId;  // Optional, can be null
     private LocalDateTime bookingDateTime;
     private Boolean status;
+    private Long holdId;  // Optional: books a slot held through /holds
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Optional filters of the booking listing; from is inclusive, to exclusive
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingFilterDTO {
+    private Long providerId;
+    private Long consumerId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Boolean status;
+}
@@ -0,0 +1,16 @@
+package com.example.Book.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One page of the booking listing; nextCursor is null on the last page
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPageDTO {
+    private List<BookingSummaryDTO> bookings;
+    private String nextCursor;
+}
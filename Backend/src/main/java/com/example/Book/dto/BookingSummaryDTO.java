@@ -0,0 +1,24 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A booking as listed by /api/booking/all, without the nested consumer, service and provider entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSummaryDTO {
+    private Long bookingId;
+    private LocalDateTime bookingDateTime;
+    private Boolean status;
+    private Long consumerId;
+    private String consumerName;
+    private Integer serviceId;
+    private String serviceName;
+    private Long providerId;
+    private String providerName;
+    private Integer groupId;
+}
@@ -0,0 +1,24 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One appointment in a provider's calendar: a booking row, or an occurrence of a recurring
+// appointment (recurrenceId set) that only exists when expanded
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarEntryDTO {
+    private LocalDateTime start;
+    private Integer serviceId;
+    private Long consumerId;
+    private Long bookingId;
+    private Integer recurrenceId;
+
+    public CalendarEntryDTO(LocalDateTime start, Integer serviceId, Long consumerId, Long bookingId) {
+        this(start, serviceId, consumerId, bookingId, null);
+    }
+}
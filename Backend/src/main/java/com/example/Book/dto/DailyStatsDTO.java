@@ -0,0 +1,28 @@
+package com.example.Book.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Booking counts and revenue of a provider; day or serviceId is null when summed over it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyStatsDTO {
+    private Long providerId;
+    private Integer serviceId;
+    private LocalDate day;
+    private Long bookingCount;
+    private Long cancelledCount;
+    private BigDecimal revenue;
+
+    // Aggregated straight from the booking table, where prices are doubles
+    public DailyStatsDTO(Long providerId, Integer serviceId, LocalDate day, Long bookingCount, Long cancelledCount,
+                         Double revenue) {
+        this(providerId, serviceId, day, bookingCount, cancelledCount,
+                revenue == null ? BigDecimal.ZERO : BigDecimal.valueOf(revenue));
+    }
+}
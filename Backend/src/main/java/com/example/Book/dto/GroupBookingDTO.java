@@ -0,0 +1,18 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingDTO {
+    private String groupName;
+    private Integer groupLeaderId;
+    private Integer serviceId;
+    private LocalDateTime bookingDateTime;
+    private Integer maxCapacity;
+}
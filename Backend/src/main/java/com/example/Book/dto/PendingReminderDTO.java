@@ -0,0 +1,17 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What the reminder scheduler keeps of a pending reminder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingReminderDTO {
+    private Integer reminderId;
+    private Long bookingId;
+    private LocalDateTime reminderDateTime;
+}
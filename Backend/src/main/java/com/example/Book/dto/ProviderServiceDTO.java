@@ -0,0 +1,23 @@
+package com.example.Book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Service row projected together with its provider id, used to assemble the provider catalog
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderServiceDTO {
+    private Long providerId;
+    private Integer serviceId;
+    private String name;
+    private String specialization;
+    private Double price;
+    private String description;
+    private String category;
+
+    public ServiceDTO toServiceDTO() {
+        return new ServiceDTO(serviceId, name, specialization, price, description, category);
+    }
+}
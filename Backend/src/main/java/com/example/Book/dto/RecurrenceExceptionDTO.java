@@ -0,0 +1,17 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cancels the occurrence at originalDateTime, or moves it when rescheduledDateTime is set
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurrenceExceptionDTO {
+    private Integer recurrenceId;
+    private LocalDateTime originalDateTime;
+    private LocalDateTime rescheduledDateTime;
+}
@@ -0,0 +1,17 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Repeats an existing booking; endDateTime is optional
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringAppointmentDTO {
+    private Long bookingId;
+    private String recurrenceType;
+    private LocalDateTime endDateTime;
+}
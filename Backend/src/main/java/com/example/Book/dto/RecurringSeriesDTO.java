@@ -0,0 +1,21 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A recurring appointment together with its template booking, as expanded for calendars and conflict checks
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringSeriesDTO {
+    private Integer recurrenceId;
+    private Long bookingId;
+    private Integer serviceId;
+    private Long consumerId;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+    private String recurrenceType;
+}
@@ -1,10 +1,10 @@
 package com.example.Book.dto;
 
-import com.example.Book.model.Services;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
@@ -17,4 +17,10 @@ public class ServiceDateTimeDTO {
     private LocalDateTime endTime;
     private Integer duration;
     private String date;
+    private LocalDate serviceDate;
+
+    public ServiceDateTimeDTO(Long serviceDateTimeId, LocalDateTime startTime, LocalDateTime endTime, Integer duration,
+                              String date) {
+        this(serviceDateTimeId, startTime, endTime, duration, date, null);
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.Book.dto;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import lombok.AllArgsConstructor;
@@ -18,4 +19,10 @@ public class ServiceProviderDTO {
     private Integer experience;
     private Boolean isActive;
     private List<ServiceDTO> services;
+
+    // Used by the catalog projection query; services are attached afterwards
+    public ServiceProviderDTO(Long providerId, String username, String email, String address,
+                              String contact, Integer experience, Boolean isActive) {
+        this(providerId, username, email, address, contact, experience, isActive, new ArrayList<>());
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.Book.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Time window in which a service is offered; duration is the slot length in minutes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceWindowDTO {
+    private Integer serviceId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Integer duration;
+
+    public boolean contains(LocalDateTime time) {
+        return !time.isBefore(startTime) && time.isBefore(endTime);
+    }
+
+    // Length of one slot in this window, or the fallback if the window has no duration
+    public Duration slotLength(Duration fallback) {
+        return duration != null && duration > 0 ? Duration.ofMinutes(duration) : fallback;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.Book.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldDTO {
+    private Integer consumerId;
+    private Integer serviceId;
+    private LocalDateTime startTime;
+}
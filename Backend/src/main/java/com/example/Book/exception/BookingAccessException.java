@@ -0,0 +1,18 @@
+package com.example.Book.exception;
+
+import org.springframework.http.HttpStatus;
+
+// A booking request without a signed-in caller (401) or for bookings that are not the caller's (403)
+public class BookingAccessException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public BookingAccessException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.Book.exception;
+
+// Thrown when the requested slot overlaps an existing booking of the same provider; mapped to 409
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
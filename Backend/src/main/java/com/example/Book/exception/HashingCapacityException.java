@@ -0,0 +1,9 @@
+package com.example.Book.exception;
+
+// Thrown when the password hashing pool is saturated; mapped to 503 so clients back off
+public class HashingCapacityException extends RuntimeException {
+
+    public HashingCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.Book.exception;
+
+import org.springframework.http.HttpStatus;
+
+// An Idempotency-Key that cannot be honoured: reused with a different request (422) or still being
+// processed by another node (409)
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyKeyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
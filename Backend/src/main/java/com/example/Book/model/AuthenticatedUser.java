@@ -0,0 +1,44 @@
+package com.example.Book.model;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+// Principal placed in the SecurityContext by JwtFilter; carries the owning row so controllers
+// can work with the current user without decoding the token or querying by email again
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+    private final String role;
+    private final String displayName;
+
+    public AuthenticatedUser(String email, String password, Collection<? extends GrantedAuthority> authorities,
+                             Long id, String role, String displayName) {
+        super(email, password, authorities);
+        this.id = id;
+        this.role = role;
+        this.displayName = displayName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // UserIdentity.CONSUMER or UserIdentity.SERVICE_PROVIDER
+    public String getRole() {
+        return role;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public boolean isConsumer() {
+        return UserIdentity.CONSUMER.equals(role);
+    }
+
+    public boolean isServiceProvider() {
+        return UserIdentity.SERVICE_PROVIDER.equals(role);
+    }
+}
@@ -1,21 +1,37 @@
 package com.example.Book.model;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "booking")
+@Table(name = "booking", uniqueConstraints = {
+        // One active booking per provider and start time; cancelled and legacy rows keep it null
+        @UniqueConstraint(name = "ux_booking_slot_key", columnNames = "slot_key")
+}, indexes = {
+        // Keyset pagination of the booking listing, unfiltered and per provider or consumer
+        @Index(name = "ix_booking_date_time", columnList = "bookingDateTime, bookingId"),
+        @Index(name = "ix_booking_provider_time", columnList = "provider_id, bookingDateTime, bookingId"),
+        @Index(name = "ix_booking_consumer_time", columnList = "client_id, bookingDateTime, bookingId")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,7 +39,9 @@ import lombok.Setter;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (a table on MySQL) so inserts can be JDBC-batched; see SequenceInitializer
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long bookingId;
 
     @ManyToOne
@@ -38,6 +56,39 @@ public class Booking {
     @JoinColumn(name = "group_id", nullable = true)
     private GroupBooking group;
 
+    // Copy of services.provider, so listings can filter by provider without joining service
+    @Column(name = "provider_id")
+    private Long providerId;
+
     private LocalDateTime bookingDateTime;
     private Boolean status;
+
+    // Service price at the time of booking, so later price changes leave past revenue alone
+    private Double price;
+
+    @JsonIgnore
+    @Column(name = "slot_key", length = 64)
+    private String slotKey;
+
+    @PrePersist
+    void copyProviderId() {
+        if (services != null && services.getProvider() != null) {
+            providerId = services.getProvider().getProvider_id();
+        }
+    }
+
+    // Group members book the leader's slot without holding it themselves
+    @JsonIgnore
+    public boolean holdsSlot() {
+        return slotKey != null && !slotKey.startsWith("group:");
+    }
+
+    public static String slotKey(Long providerId, LocalDateTime start) {
+        return providerId + ":" + start.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    // Group members share the leader's slot; their key only stops a consumer joining twice
+    public static String groupSlotKey(Integer groupId, Long consumerId) {
+        return "group:" + groupId + ":" + consumerId;
+    }
 }
\ No newline at end of file
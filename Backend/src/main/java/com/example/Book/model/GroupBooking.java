@@ -1,5 +1,7 @@
 package com.example.Book.model;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -30,6 +32,17 @@ public class GroupBooking {
     @JoinColumn(name = "group_leader_id", nullable = false)
     private Consumer groupLeader;
 
+    // The session every member books: the leader's booking holds the provider's slot
+    @ManyToOne
+    @JoinColumn(name = "service_id")
+    private Services service;
+
+    private LocalDateTime sessionDateTime;
+
+    // Only changed through GroupBookingRepository's conditional updates
     private Integer noOfMembers;
     private Integer maxCapacity;
-}
\ No newline at end of file
+
+    // Set once the leader cancelled and the session's slot was freed; nobody can join after that
+    private Boolean closed;
+}
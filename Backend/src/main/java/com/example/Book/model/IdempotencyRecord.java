@@ -0,0 +1,42 @@
+package com.example.Book.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// The outcome of a request made with an Idempotency-Key. While the request is still running the
+// row is a claim (statusCode null) with a short expiry, so a crashed node does not block the key.
+@Entity
+@Table(name = "idempotency_record", indexes = {
+        @Index(name = "ix_idempotency_record_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    // SHA-256 of the caller and the client's key
+    @Id
+    @Column(length = 64)
+    private String keyHash;
+
+    @Column(length = 64, nullable = false)
+    private String requestHash;
+
+    private Integer statusCode;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    private Instant createdAt;
+    private Instant expiresAt;
+}
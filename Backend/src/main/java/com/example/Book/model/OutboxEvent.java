@@ -0,0 +1,60 @@
+package com.example.Book.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// A booking change, written in the same transaction as the booking itself. Ids come from a pooled
+// sequence and are not in commit order, so the dispatcher assigns position once the row has
+// committed; subscribers read the log by position.
+@Entity
+@Table(name = "booking_outbox", indexes = {
+        @Index(name = "ix_booking_outbox_position", columnList = "position")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    public static final String BOOKING_CREATED = "BOOKING_CREATED";
+    public static final String BOOKING_CANCELLED = "BOOKING_CANCELLED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_outbox_seq")
+    @SequenceGenerator(name = "booking_outbox_seq", sequenceName = "booking_outbox_seq", allocationSize = 50)
+    private Long eventId;
+
+    private Long position;
+
+    @Column(length = 32, nullable = false)
+    private String eventType;
+
+    private Long bookingId;
+    private Long providerId;
+    private Integer serviceId;
+    private Long consumerId;
+    private LocalDateTime bookingDateTime;
+    private Double price;
+
+    // False for group members, whose booking does not take or free the provider's slot
+    private Boolean holdsSlot;
+
+    // Node that wrote the event, so node-local subscribers can skip their own changes
+    @Column(length = 36)
+    private String originNode;
+
+    private Instant createdAt;
+}
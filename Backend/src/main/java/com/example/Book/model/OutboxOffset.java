@@ -0,0 +1,38 @@
+package com.example.Book.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Last outbox position a subscriber has processed. The row is locked while a batch is delivered,
+// so each subscriber runs on one node at a time. Rows of node-local subscribers are marked and kept
+// alive by their node, so the dispatcher can drop those of nodes that went away.
+@Entity
+@Table(name = "outbox_offset")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxOffset {
+
+    @Id
+    @Column(length = 100)
+    private String subscriber;
+
+    private Long position;
+
+    private Boolean nodeLocal;
+
+    private Instant heartbeatAt;
+
+    public OutboxOffset(String subscriber, Long position) {
+        this(subscriber, position, false, null);
+    }
+}
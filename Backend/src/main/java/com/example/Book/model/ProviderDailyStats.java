@@ -0,0 +1,55 @@
+package com.example.Book.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Bookings of one service on one day (the day of the appointment), maintained incrementally from the
+// booking outbox and reconciled against the booking table every night
+@Entity
+@Table(name = "provider_daily_stats", indexes = {
+        @Index(name = "ix_provider_daily_stats_provider_day", columnList = "provider_id, booking_day")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderDailyStats {
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "provider_id")
+        private Long providerId;
+
+        @Column(name = "service_id")
+        private Integer serviceId;
+
+        @Column(name = "booking_day")
+        private LocalDate day;
+    }
+
+    @EmbeddedId
+    private Key id;
+
+    // Active bookings only; a cancellation moves a booking from one count to the other
+    private Long bookingCount;
+    private Long cancelledCount;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,42 @@
+package com.example.Book.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// The only occurrences of a recurring appointment that get a row: ones that were cancelled
+// (rescheduledDateTime null) or moved
+@Entity
+@Table(name = "recurrence_exception", uniqueConstraints = {
+        @UniqueConstraint(name = "ux_recurrence_exception_occurrence", columnNames = { "recurrence_id", "original_date_time" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurrenceException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long exceptionId;
+
+    @ManyToOne
+    @JoinColumn(name = "recurrence_id", nullable = false)
+    private RecurringAppointment recurringAppointment;
+
+    @Column(name = "original_date_time", nullable = false)
+    private LocalDateTime originalDateTime;
+    private LocalDateTime rescheduledDateTime;
+}
@@ -0,0 +1,35 @@
+package com.example.Book.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// A revoked token id (jti), or "sub:<email>" to revoke every token issued to that user before revokedAt
+@Entity
+@Table(name = "revoked_token", indexes = {
+        @Index(name = "ix_revoked_token_revoked_at", columnList = "revokedAt"),
+        @Index(name = "ix_revoked_token_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(length = 320)
+    private String tokenId;
+
+    private Instant revokedAt;
+
+    // Once this has passed the token is rejected by its exp claim anyway, so the row can go
+    private Instant expiresAt;
+}
@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
 @CrossOrigin(origins = "http://localhost:3000")
 @Entity
@@ -15,12 +17,20 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "service_date_time")
+@Table(name = "service_date_time", indexes = {
+        // Date-range reads of a service's windows
+        @Index(name = "ix_service_date_time_service_start", columnList = "service_id, startTime"),
+        // Day and week lookups, across all services or one provider's
+        @Index(name = "ix_service_date_time_day", columnList = "service_date, service_id")
+})
 public class ServiceDateTime {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long serviceDateTimeId;
     private String date;
+    // Typed copy of the day, derived from startTime or else the legacy date string
+    @Column(name = "service_date")
+    private LocalDate serviceDate;
     private LocalDateTime startTime;
     private LocalDateTime EndTime;
     private Integer duration;
@@ -28,4 +38,18 @@ public class ServiceDateTime {
     @ManyToOne
     @JoinColumn(name = "service_id", nullable = false)
     private Services services;
+
+    @PrePersist
+    @PreUpdate
+    void deriveServiceDate() {
+        if (startTime != null) {
+            serviceDate = startTime.toLocalDate();
+        } else if (date != null && serviceDate == null) {
+            try {
+                serviceDate = LocalDate.parse(date.trim());
+            } catch (DateTimeParseException e) {
+                // Free-form legacy value; the row is just not found by day
+            }
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package com.example.Book.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// A slot kept for one consumer during checkout. Holds live in memory on the node that made them;
+// the row lets other nodes see them and survives a restart.
+@Entity
+@Table(name = "slot_hold", uniqueConstraints = {
+        // Same key as booking.slot_key, so two nodes cannot hold one start time
+        @UniqueConstraint(name = "ux_slot_hold_slot_key", columnNames = "slot_key")
+}, indexes = {
+        @Index(name = "ix_slot_hold_provider_expires", columnList = "provider_id, expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "slot_hold_seq")
+    @SequenceGenerator(name = "slot_hold_seq", sequenceName = "slot_hold_seq", allocationSize = 50)
+    private Long holdId;
+
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    private Integer serviceId;
+    private Long consumerId;
+    private LocalDateTime startTime;
+
+    @JsonIgnore
+    @Column(name = "slot_key", length = 64)
+    private String slotKey;
+
+    private Instant expiresAt;
+    private Instant createdAt;
+}
@@ -0,0 +1,43 @@
+package com.example.Book.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Single email -> (role, owning row) index shared by consumers and service providers
+@Entity
+@Table(name = "user_identity", indexes = {
+        @Index(name = "ux_user_identity_email", columnList = "email", unique = true),
+        @Index(name = "ix_user_identity_owner", columnList = "role, owner_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserIdentity {
+
+    public static final String CONSUMER = "CONSUMER";
+    public static final String SERVICE_PROVIDER = "SERVICE_PROVIDER";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long identityId;
+
+    // Always stored trimmed and lower-cased
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false, length = 32)
+    private String role;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+}
@@ -1,14 +1,73 @@
 package com.example.Book.repo;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.Book.dto.BookedSlotDTO;
+import com.example.Book.dto.CalendarEntryDTO;
+import com.example.Book.dto.DailyStatsDTO;
 import com.example.Book.model.Booking;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.bookingId = :bookingId AND b.consumer.client_id = :clientId")
     boolean existsByBookingIdAndConsumerClientId(@Param("bookingId") Long bookingId, @Param("clientId") Long clientId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.example.Book.dto.BookedSlotDTO(s.provider.provider_id, b.bookingId, s.service_id, b.bookingDateTime) " +
+            "FROM Booking b JOIN b.services s " +
+            "WHERE s.provider.provider_id = :providerId AND b.status = true AND b.bookingDateTime >= :from")
+    List<BookedSlotDTO> findActiveSlotsByProviderId(@Param("providerId") Long providerId, @Param("from") LocalDateTime from);
+
+    @Query("SELECT new com.example.Book.dto.BookedSlotDTO(s.provider.provider_id, b.bookingId, s.service_id, b.bookingDateTime) " +
+            "FROM Booking b JOIN b.services s " +
+            "WHERE b.status = true AND b.bookingDateTime >= :from")
+    List<BookedSlotDTO> findActiveSlotsFrom(@Param("from") LocalDateTime from);
+
+    @Query("SELECT new com.example.Book.dto.CalendarEntryDTO(b.bookingDateTime, s.service_id, b.consumer.client_id, b.bookingId) " +
+            "FROM Booking b JOIN b.services s " +
+            "WHERE s.provider.provider_id = :providerId AND b.status = true " +
+            "AND b.bookingDateTime >= :from AND b.bookingDateTime < :to " +
+            "ORDER BY b.bookingDateTime")
+    List<CalendarEntryDTO> findCalendarEntries(@Param("providerId") Long providerId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    // Returns 0 if the booking was cancelled concurrently, so a cancellation is only recorded once
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = false, b.slotKey = null WHERE b.bookingId = :bookingId AND b.status = true")
+    int markCancelled(@Param("bookingId") Long bookingId);
+
+    // What provider_daily_stats should hold for [from, to); bookings made before prices were recorded
+    // count at the service's current price
+    @Query("SELECT new com.example.Book.dto.DailyStatsDTO(s.provider.provider_id, s.service_id, " +
+            "EXTRACT(DATE FROM b.bookingDateTime), " +
+            "SUM(CASE WHEN b.status = true THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN b.status = false THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN b.status = true THEN COALESCE(b.price, s.price, 0.0) ELSE 0.0 END)) " +
+            "FROM Booking b JOIN b.services s " +
+            "WHERE b.bookingDateTime >= :from AND b.bookingDateTime < :to " +
+            "GROUP BY s.provider.provider_id, s.service_id, EXTRACT(DATE FROM b.bookingDateTime)")
+    List<DailyStatsDTO> aggregateDailyStats(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(b.bookingDateTime) FROM Booking b")
+    LocalDateTime findFirstBookingDateTime();
+
+    @Query("SELECT MAX(b.bookingDateTime) FROM Booking b")
+    LocalDateTime findLastBookingDateTime();
+
+    // Bookings saved before provider_id was copied onto booking (see V8__Add_Booking_Listing_Indexes.sql)
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.providerId IS NULL AND b.services IS NOT NULL")
+    boolean existsWithoutProviderId();
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.providerId = " +
+            "(SELECT s.provider.provider_id FROM Services s WHERE s = b.services) " +
+            "WHERE b.providerId IS NULL AND b.services IS NOT NULL")
+    int backfillProviderIds();
+}
@@ -0,0 +1,18 @@
+package com.example.Book.repo;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.example.Book.dto.BookingFilterDTO;
+import com.example.Book.dto.BookingSummaryDTO;
+import com.example.Book.util.BookingCursor;
+
+public interface BookingRepositoryCustom {
+
+    // Up to limit bookings after the cursor (null for the first page), ordered by time and id
+    List<BookingSummaryDTO> findSummaries(BookingFilterDTO filter, BookingCursor after, int limit);
+
+    // Every matching booking in the same order, fetched from a database cursor; the caller must hold
+    // a transaction open and close the stream
+    Stream<BookingSummaryDTO> streamSummaries(BookingFilterDTO filter, int fetchSize);
+}
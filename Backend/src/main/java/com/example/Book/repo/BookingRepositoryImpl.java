@@ -0,0 +1,82 @@
+package com.example.Book.repo;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+
+import com.example.Book.dto.BookingFilterDTO;
+import com.example.Book.dto.BookingSummaryDTO;
+import com.example.Book.util.BookingCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+// Only the filters that are set end up in the query, so every combination is a plain range over one
+// of the (…, bookingDateTime, bookingId) indexes on booking, starting right after the cursor
+class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingSummaryDTO> findSummaries(BookingFilterDTO filter, BookingCursor after, int limit) {
+        return summaryQuery(filter, after).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<BookingSummaryDTO> streamSummaries(BookingFilterDTO filter, int fetchSize) {
+        return summaryQuery(filter, null).setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize).getResultStream();
+    }
+
+    private TypedQuery<BookingSummaryDTO> summaryQuery(BookingFilterDTO filter, BookingCursor after) {
+        // Bookings without a time cannot be placed in the listing's order
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.example.Book.dto.BookingSummaryDTO(b.bookingId, b.bookingDateTime, b.status, " +
+                "c.client_id, c.username, s.service_id, s.name, p.provider_id, p.username, g.groupId) " +
+                "FROM Booking b JOIN b.consumer c JOIN b.services s JOIN s.provider p LEFT JOIN b.group g " +
+                "WHERE b.bookingDateTime IS NOT NULL");
+        if (filter.getProviderId() != null) {
+            jpql.append(" AND b.providerId = :providerId");
+        }
+        if (filter.getConsumerId() != null) {
+            jpql.append(" AND c.client_id = :consumerId");
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" AND b.bookingDateTime >= :from");
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND b.bookingDateTime < :to");
+        }
+        if (filter.getStatus() != null) {
+            jpql.append(" AND b.status = :status");
+        }
+        if (after != null) {
+            jpql.append(" AND (b.bookingDateTime > :afterTime OR (b.bookingDateTime = :afterTime AND b.bookingId > :afterId))");
+        }
+        jpql.append(" ORDER BY b.bookingDateTime, b.bookingId");
+
+        TypedQuery<BookingSummaryDTO> query = entityManager.createQuery(jpql.toString(), BookingSummaryDTO.class);
+        if (filter.getProviderId() != null) {
+            query.setParameter("providerId", filter.getProviderId());
+        }
+        if (filter.getConsumerId() != null) {
+            query.setParameter("consumerId", filter.getConsumerId());
+        }
+        if (filter.getFrom() != null) {
+            query.setParameter("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            query.setParameter("to", filter.getTo());
+        }
+        if (filter.getStatus() != null) {
+            query.setParameter("status", filter.getStatus());
+        }
+        if (after != null) {
+            query.setParameter("afterTime", after.bookingDateTime());
+            query.setParameter("afterId", after.bookingId());
+        }
+        return query;
+    }
+}
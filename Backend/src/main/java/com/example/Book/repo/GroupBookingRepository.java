@@ -0,0 +1,29 @@
+package com.example.Book.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.model.GroupBooking;
+
+@Repository
+public interface GroupBookingRepository extends JpaRepository<GroupBooking, Integer> {
+
+    // Returns 0 when the group is already full, so concurrent joins can never overflow it
+    @Modifying
+    @Query("UPDATE GroupBooking g SET g.noOfMembers = COALESCE(g.noOfMembers, 0) + 1 " +
+           "WHERE g.groupId = :groupId AND (g.closed IS NULL OR g.closed = false) " +
+           "AND (g.maxCapacity IS NULL OR COALESCE(g.noOfMembers, 0) < g.maxCapacity)")
+    int claimSeat(@Param("groupId") Integer groupId);
+
+    @Modifying
+    @Query("UPDATE GroupBooking g SET g.noOfMembers = g.noOfMembers - 1 WHERE g.groupId = :groupId AND g.noOfMembers > 0")
+    int releaseSeat(@Param("groupId") Integer groupId);
+
+    // Returns 0 when members are still in the group, including ones whose join has not committed yet
+    @Modifying
+    @Query("UPDATE GroupBooking g SET g.closed = true WHERE g.groupId = :groupId AND COALESCE(g.noOfMembers, 0) <= 1")
+    int close(@Param("groupId") Integer groupId);
+}
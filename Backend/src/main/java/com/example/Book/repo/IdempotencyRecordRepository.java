@@ -0,0 +1,26 @@
+package com.example.Book.repo;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // A plain INSERT that fails on an existing key; save() would merge into the existing row instead
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_record (key_hash, request_hash, created_at, expires_at) " +
+            "VALUES (:keyHash, :requestHash, :createdAt, :expiresAt)", nativeQuery = true)
+    int insertClaim(@Param("keyHash") String keyHash, @Param("requestHash") String requestHash,
+                    @Param("createdAt") Instant createdAt, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,38 @@
+package com.example.Book.repo;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.model.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.position IS NULL ORDER BY e.eventId")
+    List<OutboxEvent> findUnsequenced(Pageable pageable);
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.position > :position ORDER BY e.position")
+    List<OutboxEvent> findAfter(@Param("position") Long position, Pageable pageable);
+
+    // Committed events a subscriber at this position has not seen yet, for bookings in [from, to)
+    @Query("SELECT e FROM OutboxEvent e WHERE (e.position IS NULL OR e.position > :position) " +
+           "AND e.bookingDateTime >= :from AND e.bookingDateTime < :to")
+    List<OutboxEvent> findUndelivered(@Param("position") Long position,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    @Query("SELECT COALESCE(MAX(e.position), 0) FROM OutboxEvent e")
+    Long findLastPosition();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.position <= :position AND e.createdAt < :before")
+    int deleteDeliveredBefore(@Param("position") Long position, @Param("before") Instant before);
+}
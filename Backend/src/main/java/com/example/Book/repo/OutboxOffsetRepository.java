@@ -0,0 +1,33 @@
+package com.example.Book.repo;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.model.OutboxOffset;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxOffset o WHERE o.subscriber = :subscriber")
+    Optional<OutboxOffset> lockBySubscriber(@Param("subscriber") String subscriber);
+
+    @Modifying
+    @Query("DELETE FROM OutboxOffset o WHERE o.subscriber IN :subscribers")
+    int deleteBySubscribers(@Param("subscribers") Collection<String> subscribers);
+
+    // Node-local rows whose node has not delivered since, i.e. stopped without cleaning up
+    @Modifying
+    @Query("DELETE FROM OutboxOffset o WHERE o.nodeLocal = true AND o.heartbeatAt < :before")
+    int deleteNodeLocalIdleSince(@Param("before") Instant before);
+}
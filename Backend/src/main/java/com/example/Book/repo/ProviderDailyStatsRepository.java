@@ -0,0 +1,46 @@
+package com.example.Book.repo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.dto.DailyStatsDTO;
+import com.example.Book.model.ProviderDailyStats;
+
+@Repository
+public interface ProviderDailyStatsRepository extends JpaRepository<ProviderDailyStats, ProviderDailyStats.Key> {
+
+    @Query("SELECT s FROM ProviderDailyStats s WHERE s.id.day >= :from AND s.id.day <= :to")
+    List<ProviderDailyStats> findByDayRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.example.Book.dto.DailyStatsDTO(s.id.providerId, s.id.serviceId, s.id.day, " +
+            "s.bookingCount, s.cancelledCount, s.revenue) " +
+            "FROM ProviderDailyStats s " +
+            "WHERE s.id.providerId = :providerId AND s.id.day >= :from AND s.id.day <= :to " +
+            "ORDER BY s.id.day, s.id.serviceId")
+    List<DailyStatsDTO> findRows(@Param("providerId") Long providerId,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+
+    @Query("SELECT new com.example.Book.dto.DailyStatsDTO(s.id.providerId, CAST(NULL AS Integer), s.id.day, " +
+            "SUM(s.bookingCount), SUM(s.cancelledCount), SUM(s.revenue)) " +
+            "FROM ProviderDailyStats s " +
+            "WHERE s.id.providerId = :providerId AND s.id.day >= :from AND s.id.day <= :to " +
+            "GROUP BY s.id.providerId, s.id.day ORDER BY s.id.day")
+    List<DailyStatsDTO> sumByDay(@Param("providerId") Long providerId,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+
+    @Query("SELECT new com.example.Book.dto.DailyStatsDTO(s.id.providerId, s.id.serviceId, CAST(NULL AS LocalDate), " +
+            "SUM(s.bookingCount), SUM(s.cancelledCount), SUM(s.revenue)) " +
+            "FROM ProviderDailyStats s " +
+            "WHERE s.id.providerId = :providerId AND s.id.day >= :from AND s.id.day <= :to " +
+            "GROUP BY s.id.providerId, s.id.serviceId ORDER BY s.id.serviceId")
+    List<DailyStatsDTO> sumByService(@Param("providerId") Long providerId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+}
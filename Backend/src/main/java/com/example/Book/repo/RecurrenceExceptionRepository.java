@@ -0,0 +1,31 @@
+package com.example.Book.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.dto.RecurrenceExceptionDTO;
+import com.example.Book.model.RecurrenceException;
+
+@Repository
+public interface RecurrenceExceptionRepository extends JpaRepository<RecurrenceException, Long> {
+
+    @Query("SELECT e FROM RecurrenceException e " +
+            "WHERE e.recurringAppointment.recurrenceId = :recurrenceId AND e.originalDateTime = :originalDateTime")
+    Optional<RecurrenceException> findOccurrence(@Param("recurrenceId") Integer recurrenceId,
+                                                 @Param("originalDateTime") LocalDateTime originalDateTime);
+
+    @Query("SELECT new com.example.Book.dto.RecurrenceExceptionDTO(e.recurringAppointment.recurrenceId, " +
+            "e.originalDateTime, e.rescheduledDateTime) " +
+            "FROM RecurrenceException e " +
+            "WHERE e.recurringAppointment.recurrenceId IN :recurrenceIds " +
+            "AND (e.originalDateTime >= :since OR e.rescheduledDateTime >= :since)")
+    List<RecurrenceExceptionDTO> findBySeries(@Param("recurrenceIds") Collection<Integer> recurrenceIds,
+                                              @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,25 @@
+package com.example.Book.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.dto.RecurringSeriesDTO;
+import com.example.Book.model.RecurringAppointment;
+
+@Repository
+public interface RecurringAppointmentRepository extends JpaRepository<RecurringAppointment, Integer> {
+
+    // Series of the provider's active bookings that still have occurrences at or after since
+    @Query("SELECT new com.example.Book.dto.RecurringSeriesDTO(r.recurrenceId, b.bookingId, s.service_id, " +
+            "b.consumer.client_id, r.startDateTime, r.endDateTime, r.recurrenceType) " +
+            "FROM RecurringAppointment r JOIN r.booking b JOIN b.services s " +
+            "WHERE s.provider.provider_id = :providerId AND b.status = true " +
+            "AND (r.endDateTime IS NULL OR r.endDateTime >= :since)")
+    List<RecurringSeriesDTO> findActiveSeriesByProviderId(@Param("providerId") Long providerId,
+                                                          @Param("since") LocalDateTime since);
+}
@@ -1,12 +1,32 @@
 package com.example.Book.repo;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.Book.dto.PendingReminderDTO;
 import com.example.Book.model.Reminder;
 
 public interface ReminderRepository extends JpaRepository<Reminder, Integer> {
     List<Reminder> findByReminderDateTimeBetweenAndStatus(LocalDateTime start, LocalDateTime end, String status);
+
+    @Modifying
+    @Query("UPDATE Reminder r SET r.status = 'CANCELLED' WHERE r.booking.bookingId IN :bookingIds AND r.status = 'PENDING'")
+    int cancelPending(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Pending reminders due in [from, to], without loading their bookings
+    @Query("SELECT new com.example.Book.dto.PendingReminderDTO(r.reminderId, r.booking.bookingId, r.reminderDateTime) " +
+            "FROM Reminder r WHERE r.status = 'PENDING' AND r.reminderDateTime BETWEEN :from AND :to")
+    List<PendingReminderDTO> findPendingDue(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Claims a due reminder for sending; 0 when it was sent, cancelled or moved later in the meantime
+    @Modifying
+    @Query("UPDATE Reminder r SET r.status = 'SENT' " +
+            "WHERE r.reminderId = :reminderId AND r.status = 'PENDING' AND r.reminderDateTime <= :now")
+    int markSent(@Param("reminderId") Integer reminderId, @Param("now") LocalDateTime now);
 }
@@ -1,10 +1,16 @@
 package com.example.Book.repo;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.Book.dto.ScheduleDTO;
 import com.example.Book.model.Schedule;
 import com.example.Book.model.ServiceProvider;
 
@@ -13,4 +19,16 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Integer> {
     //List<Schedule> findByProvider(ServiceProvider provider);
     List<Schedule> findByProvider(ServiceProvider provider);
 
+    // Range scan of ix_schedule_provider_time; the provider id is read from the foreign key, no join
+    @Query(value = "SELECT new com.example.Book.dto.ScheduleDTO(s.scheduleId, s.provider.provider_id, s.dateTime) " +
+            "FROM Schedule s " +
+            "WHERE s.provider.provider_id = :providerId AND s.dateTime >= :from AND s.dateTime < :to " +
+            "ORDER BY s.dateTime, s.scheduleId",
+            countQuery = "SELECT COUNT(s) FROM Schedule s " +
+            "WHERE s.provider.provider_id = :providerId AND s.dateTime >= :from AND s.dateTime < :to")
+    Page<ScheduleDTO> findPageByProviderId(@Param("providerId") Long providerId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           Pageable pageable);
+
 }
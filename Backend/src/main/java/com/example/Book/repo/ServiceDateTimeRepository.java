@@ -1,19 +1,73 @@
 package com.example.Book.repo;
 
 import com.example.Book.dto.ServiceDateTimeDTO;
+import com.example.Book.dto.ServiceWindowDTO;
 import com.example.Book.model.ServiceDateTime;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ServiceDateTimeRepository extends JpaRepository<ServiceDateTime, Long> {
 
-    @Query("SELECT new com.example.Book.dto.ServiceDateTimeDTO(sdt.serviceDateTimeId, sdt.startTime, sdt.EndTime, sdt.duration, sdt.date) " +
+    @Query("SELECT new com.example.Book.dto.ServiceDateTimeDTO(sdt.serviceDateTimeId, sdt.startTime, sdt.EndTime, sdt.duration, sdt.date, sdt.serviceDate) " +
             "FROM ServiceDateTime sdt " +
             "JOIN sdt.services srv " +
             "JOIN srv.provider sp " +
             "WHERE sp.provider_id = :providerId")
     List<ServiceDateTimeDTO> findByProviderId(@Param("providerId") Long providerId);
+
+    // Windows starting in [from, to); each of the provider's services is a range scan of
+    // ix_service_date_time_service_start
+    @Query(value = "SELECT new com.example.Book.dto.ServiceDateTimeDTO(sdt.serviceDateTimeId, sdt.startTime, sdt.EndTime, sdt.duration, sdt.date, sdt.serviceDate) " +
+            "FROM ServiceDateTime sdt " +
+            "JOIN sdt.services srv " +
+            "WHERE srv.provider.provider_id = :providerId AND sdt.startTime >= :from AND sdt.startTime < :to " +
+            "ORDER BY sdt.startTime, sdt.serviceDateTimeId",
+            countQuery = "SELECT COUNT(sdt) FROM ServiceDateTime sdt " +
+            "JOIN sdt.services srv " +
+            "WHERE srv.provider.provider_id = :providerId AND sdt.startTime >= :from AND sdt.startTime < :to")
+    Page<ServiceDateTimeDTO> findPageByProviderId(@Param("providerId") Long providerId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  Pageable pageable);
+
+    // A provider's windows on the days [from, to], seeking ix_service_date_time_day; one day when from
+    // and to are equal, a calendar week when they are seven days apart
+    @Query("SELECT new com.example.Book.dto.ServiceDateTimeDTO(sdt.serviceDateTimeId, sdt.startTime, sdt.EndTime, sdt.duration, sdt.date, sdt.serviceDate) " +
+            "FROM ServiceDateTime sdt " +
+            "JOIN sdt.services srv " +
+            "WHERE srv.provider.provider_id = :providerId AND sdt.serviceDate BETWEEN :from AND :to " +
+            "ORDER BY sdt.serviceDate, sdt.startTime, sdt.serviceDateTimeId")
+    List<ServiceDateTimeDTO> findByProviderIdAndDays(@Param("providerId") Long providerId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+
+    @Query("SELECT new com.example.Book.dto.ServiceWindowDTO(srv.service_id, sdt.startTime, sdt.EndTime, sdt.duration) " +
+            "FROM ServiceDateTime sdt " +
+            "JOIN sdt.services srv " +
+            "WHERE srv.provider.provider_id = :providerId AND sdt.EndTime > :since")
+    List<ServiceWindowDTO> findWindowsByProviderId(@Param("providerId") Long providerId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.example.Book.dto.ServiceWindowDTO(srv.service_id, sdt.startTime, sdt.EndTime, sdt.duration) " +
+            "FROM ServiceDateTime sdt " +
+            "JOIN sdt.services srv " +
+            "WHERE sdt.EndTime > :from")
+    List<ServiceWindowDTO> findWindowsEndingAfter(@Param("from") LocalDateTime from);
+
+    // Rows saved before service_date existed (see V14__Add_Service_Date_Column.sql)
+    @Modifying
+    @Query("UPDATE ServiceDateTime sdt SET sdt.serviceDate = EXTRACT(DATE FROM sdt.startTime) " +
+            "WHERE sdt.serviceDate IS NULL AND sdt.startTime IS NOT NULL")
+    int backfillServiceDatesFromStartTime();
+
+    // Rows that only have the legacy date string; it is parsed in Java since date parsing differs per database
+    @Query("SELECT sdt FROM ServiceDateTime sdt WHERE sdt.serviceDate IS NULL AND sdt.startTime IS NULL AND sdt.date IS NOT NULL")
+    List<ServiceDateTime> findWithoutServiceDate();
 }
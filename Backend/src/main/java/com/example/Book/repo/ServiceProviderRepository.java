@@ -1,8 +1,13 @@
 package com.example.Book.repo;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.Book.dto.ServiceProviderDTO;
 import com.example.Book.model.ServiceProvider;
 
 import java.util.Optional;
@@ -12,4 +17,20 @@ public interface ServiceProviderRepository extends JpaRepository<ServiceProvider
 
 
     Optional <ServiceProvider> findByEmail(String email);
+
+    // Catalog page without loading entities; a null category matches every provider
+    @Query(value = "SELECT new com.example.Book.dto.ServiceProviderDTO(sp.provider_id, sp.username, sp.email, " +
+            "sp.address, sp.contact, sp.experience, sp.isActive) " +
+            "FROM ServiceProvider sp " +
+            "WHERE :category IS NULL OR EXISTS " +
+            "(SELECT 1 FROM Services s WHERE s.provider = sp AND s.category = :category)",
+            countQuery = "SELECT COUNT(sp) FROM ServiceProvider sp " +
+            "WHERE :category IS NULL OR EXISTS " +
+            "(SELECT 1 FROM Services s WHERE s.provider = sp AND s.category = :category)")
+    Page<ServiceProviderDTO> findCatalogPage(@Param("category") String category, Pageable pageable);
+
+    @Query("SELECT new com.example.Book.dto.ServiceProviderDTO(sp.provider_id, sp.username, sp.email, " +
+            "sp.address, sp.contact, sp.experience, sp.isActive) " +
+            "FROM ServiceProvider sp WHERE sp.provider_id = :providerId")
+    Optional<ServiceProviderDTO> findCatalogProvider(@Param("providerId") Long providerId);
 }
@@ -1,14 +1,33 @@
 package com.example.Book.repo;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.Book.dto.ProviderServiceDTO;
 import com.example.Book.model.ServiceProvider;
 import com.example.Book.model.Services;
 
 @Repository
 public interface ServiceRepository extends JpaRepository<Services, Integer> {
     List<Services> findByProvider(ServiceProvider provider);
-}
\ No newline at end of file
+
+    @Query("SELECT s FROM Services s JOIN FETCH s.provider WHERE s.service_id IN :serviceIds")
+    List<Services> findAllWithProviderByIds(@Param("serviceIds") Collection<Integer> serviceIds);
+
+    @Query("SELECT new com.example.Book.dto.ProviderServiceDTO(s.provider.provider_id, s.service_id, s.name, " +
+            "s.specialization, s.price, s.description, s.category) " +
+            "FROM Services s WHERE s.provider.provider_id IN :providerIds")
+    List<ProviderServiceDTO> findCatalogServicesByProviderIds(@Param("providerIds") Collection<Long> providerIds);
+
+    // Services of every provider the unpaged catalog returns, in one pass instead of an IN list
+    @Query("SELECT new com.example.Book.dto.ProviderServiceDTO(s.provider.provider_id, s.service_id, s.name, " +
+            "s.specialization, s.price, s.description, s.category) " +
+            "FROM Services s WHERE :category IS NULL OR EXISTS " +
+            "(SELECT 1 FROM Services c WHERE c.provider = s.provider AND c.category = :category)")
+    List<ProviderServiceDTO> findCatalogServices(@Param("category") String category);
+}
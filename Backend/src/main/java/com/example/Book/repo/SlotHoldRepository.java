@@ -0,0 +1,36 @@
+package com.example.Book.repo;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.model.SlotHold;
+
+@Repository
+public interface SlotHoldRepository extends JpaRepository<SlotHold, Long> {
+
+    @Query("SELECT h FROM SlotHold h WHERE h.providerId = :providerId AND h.expiresAt > :now")
+    List<SlotHold> findActiveByProviderId(@Param("providerId") Long providerId, @Param("now") Instant now);
+
+    @Query("SELECT h FROM SlotHold h WHERE h.expiresAt > :now")
+    List<SlotHold> findActive(@Param("now") Instant now);
+
+    // Returns 0 if the hold has expired or was already confirmed or released
+    @Modifying
+    @Query("DELETE FROM SlotHold h WHERE h.holdId = :holdId AND h.expiresAt > :now")
+    int deleteActive(@Param("holdId") Long holdId, @Param("now") Instant now);
+
+    // Clears a hold whose node went away before expiring it, so the slot can be held again
+    @Modifying
+    @Query("DELETE FROM SlotHold h WHERE h.slotKey = :slotKey AND h.expiresAt <= :now")
+    int deleteExpiredBySlotKey(@Param("slotKey") String slotKey, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM SlotHold h WHERE h.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
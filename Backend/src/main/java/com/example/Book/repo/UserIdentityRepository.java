@@ -0,0 +1,41 @@
+package com.example.Book.repo;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.Book.model.UserIdentity;
+
+@Repository
+public interface UserIdentityRepository extends JpaRepository<UserIdentity, Long> {
+    Optional<UserIdentity> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    // Emails present in both tables count once, as they get a single identity
+    @Query(value = "SELECT COUNT(DISTINCT LOWER(TRIM(e.email))) FROM (" +
+            "SELECT email FROM consumers WHERE email IS NOT NULL " +
+            "UNION ALL SELECT email FROM service_provider WHERE email IS NOT NULL) e", nativeQuery = true)
+    long countAccountEmails();
+
+    // Same rows as db/migration/V3__Create_User_Identity.sql, in portable SQL; consumers first so that
+    // an email present in both tables keeps resolving to the consumer, as it did before
+    @Modifying
+    @Query(value = "INSERT INTO user_identity (email, role, owner_id) " +
+            "SELECT LOWER(TRIM(c.email)), 'CONSUMER', MIN(c.client_id) FROM consumers c " +
+            "WHERE c.email IS NOT NULL AND NOT EXISTS " +
+            "(SELECT 1 FROM user_identity ui WHERE ui.email = LOWER(TRIM(c.email))) " +
+            "GROUP BY LOWER(TRIM(c.email))", nativeQuery = true)
+    int backfillConsumers();
+
+    @Modifying
+    @Query(value = "INSERT INTO user_identity (email, role, owner_id) " +
+            "SELECT LOWER(TRIM(sp.email)), 'SERVICE_PROVIDER', MIN(sp.provider_id) FROM service_provider sp " +
+            "WHERE sp.email IS NOT NULL AND NOT EXISTS " +
+            "(SELECT 1 FROM user_identity ui WHERE ui.email = LOWER(TRIM(sp.email))) " +
+            "GROUP BY LOWER(TRIM(sp.email))", nativeQuery = true)
+    int backfillServiceProviders();
+}
@@ -0,0 +1,54 @@
+package com.example.Book.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.Book.model.OutboxEvent;
+
+// Brings this node's availability index and free-slot bitmaps up to date with bookings made on other
+// nodes, which would otherwise only show up at the next periodic reload
+@Component
+public class AvailabilityOutboxSubscriber implements OutboxSubscriber {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return "availability@" + outboxService.nodeId();
+    }
+
+    @Override
+    public boolean replaysHistory() {
+        return false;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Set<Long> invalidated = new HashSet<>();
+        for (OutboxEvent event : events) {
+            if (outboxService.nodeId().equals(event.getOriginNode()) || event.getBookingDateTime() == null
+                    || Boolean.FALSE.equals(event.getHoldsSlot())) {
+                continue;
+            }
+            if (invalidated.add(event.getProviderId())) {
+                availabilityService.invalidate(event.getProviderId());
+            }
+            // Applied by SlotSearchService once this delivery commits
+            eventPublisher.publishEvent(new SlotSearchService.SlotChanged(event.getProviderId(), event.getBookingDateTime(),
+                    availabilityService.slotLength(event.getProviderId(), event.getServiceId(), event.getBookingDateTime()),
+                    OutboxEvent.BOOKING_CREATED.equals(event.getEventType())));
+        }
+    }
+}
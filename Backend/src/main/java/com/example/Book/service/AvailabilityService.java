@@ -0,0 +1,424 @@
+package com.example.Book.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.Book.dto.BookedSlotDTO;
+import com.example.Book.dto.RecurrenceExceptionDTO;
+import com.example.Book.dto.RecurringSeriesDTO;
+import com.example.Book.dto.ServiceWindowDTO;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.SlotHold;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.RecurrenceExceptionRepository;
+import com.example.Book.repo.RecurringAppointmentRepository;
+import com.example.Book.repo.ServiceDateTimeRepository;
+import com.example.Book.repo.SlotHoldRepository;
+import com.example.Book.util.IntervalSet;
+import com.example.Book.util.RecurrenceRule;
+
+// In-memory index of each provider's booked time (bookings, slot holds and recurring appointments), loaded lazily
+// per provider and updated on every booking write. Providers are spread over a fixed set of lock stripes, so bookings for different
+// providers almost never contend and never wait on each other's database loads for long.
+// Times are LocalDateTime seconds on the UTC timeline, matching how bookings are stored.
+@Service
+public class AvailabilityService {
+
+    private static final int STRIPES = 64;
+
+    // Occurrences of a recurring appointment are expanded on demand, never stored
+    private record Series(Integer serviceId, RecurrenceRule rule, Set<LocalDateTime> skipped) {
+    }
+
+    // Guarded by the provider's stripe lock
+    private static final class ProviderCalendar {
+        private final IntervalSet bookings = new IntervalSet();
+        // Rescheduled occurrences of recurring appointments
+        private final IntervalSet moved = new IntervalSet();
+        // Slot holds by hold id, including holds of other nodes as of the last load
+        private final IntervalSet holds = new IntervalSet();
+        private final List<Series> series = new ArrayList<>();
+        private final List<ServiceWindowDTO> windows;
+        private final long longestSlotSeconds;
+        private final long loadedAtMillis = System.currentTimeMillis();
+        // When the first hold loaded with the calendar runs out
+        private long holdsExpireAtMillis = Long.MAX_VALUE;
+        private int pendingReservations;
+
+        private ProviderCalendar(List<ServiceWindowDTO> windows, Duration defaultDuration) {
+            this.windows = windows;
+            long longest = defaultDuration.toSeconds();
+            for (ServiceWindowDTO window : windows) {
+                longest = Math.max(longest, window.slotLength(defaultDuration).toSeconds());
+            }
+            this.longestSlotSeconds = longest;
+        }
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceDateTimeRepository serviceDateTimeRepository;
+
+    @Autowired
+    private RecurringAppointmentRepository recurringAppointmentRepository;
+
+    @Autowired
+    private RecurrenceExceptionRepository recurrenceExceptionRepository;
+
+    @Autowired
+    private SlotHoldRepository slotHoldRepository;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Map<Long, ProviderCalendar> calendars = new ConcurrentHashMap<>();
+    // Provisional reservations use negative ids until the booking row has an id
+    private final AtomicLong provisionalIds = new AtomicLong();
+
+    private final Duration defaultDuration;
+    private final Duration lookback;
+    private final long reloadIntervalMillis;
+
+    public AvailabilityService(@Value("${availability.default-duration:60m}") Duration defaultDuration,
+                               @Value("${availability.lookback:1d}") Duration lookback,
+                               @Value("${availability.reload-interval:5m}") Duration reloadInterval) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.defaultDuration = defaultDuration;
+        this.lookback = lookback;
+        this.reloadIntervalMillis = reloadInterval.toMillis();
+    }
+
+    // Holds the slot for the caller or throws BookingConflictException. Within a transaction the
+    // hold becomes the booking's entry on commit and is released on rollback.
+    public long reserve(Long providerId, Integer serviceId, LocalDateTime start) {
+        return reserve(providerId, serviceId, start, null);
+    }
+
+    // Same, for a booking that takes over the given slot hold, which therefore does not count as a
+    // conflict. The hold itself is removed once the booking has committed.
+    public long reserve(Long providerId, Integer serviceId, LocalDateTime start, Long holdId) {
+        ReentrantLock lock = lockFor(providerId);
+        lock.lock();
+        try {
+            ProviderCalendar calendar = calendar(providerId);
+            long from = seconds(start);
+            long to = from + slotLength(calendar, serviceId, start).toSeconds();
+            boolean lifted = holdId != null && calendar.holds.remove(holdId);
+            long blockedUntil = latestOverlappingEnd(calendar, from, to);
+            if (lifted) {
+                calendar.holds.add(holdId, from, to);
+            }
+            if (blockedUntil != Long.MIN_VALUE) {
+                throw new BookingConflictException("The provider is already booked at " + start);
+            }
+            long hold = provisionalIds.decrementAndGet();
+            calendar.bookings.add(hold, from, to);
+            calendar.pendingReservations++;
+            return hold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void confirmOnCommit(Long providerId, long hold, Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            confirm(providerId, hold, bookingId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    confirm(providerId, hold, bookingId);
+                } else {
+                    release(providerId, hold);
+                }
+            }
+        });
+    }
+
+    private void confirm(Long providerId, long hold, Long bookingId) {
+        withCalendar(providerId, calendar -> {
+            calendar.bookings.rename(hold, bookingId);
+            calendar.pendingReservations--;
+        });
+    }
+
+    // Turns a reservation into a slot hold once the hold's row has committed
+    public void holdOnCommit(Long providerId, Integer serviceId, LocalDateTime start, long reservation, Long holdId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(providerId, reservation);
+                    return;
+                }
+                withCalendar(providerId, calendar -> {
+                    calendar.bookings.remove(reservation);
+                    calendar.pendingReservations--;
+                    long from = seconds(start);
+                    calendar.holds.add(holdId, from, from + slotLength(calendar, serviceId, start).toSeconds());
+                });
+            }
+        });
+    }
+
+    public void releaseHold(Long providerId, Long holdId) {
+        withCalendar(providerId, calendar -> calendar.holds.remove(holdId));
+    }
+
+    // A cancelled booking keeps its slot until the cancellation has committed
+    public void releaseOnCommit(Long providerId, Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(providerId, bookingId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(providerId, bookingId);
+            }
+        });
+    }
+
+    // Frees a provisional hold or a cancelled booking
+    public void release(Long providerId, long id) {
+        withCalendar(providerId, calendar -> {
+            calendar.bookings.remove(id);
+            if (id < 0) {
+                calendar.pendingReservations--;
+            }
+        });
+    }
+
+    public boolean isFree(Long providerId, Integer serviceId, LocalDateTime start) {
+        ReentrantLock lock = lockFor(providerId);
+        lock.lock();
+        try {
+            ProviderCalendar calendar = calendar(providerId);
+            long from = seconds(start);
+            return latestOverlappingEnd(calendar, from, from + slotLength(calendar, serviceId, start).toSeconds()) == Long.MIN_VALUE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // First free slot at or after the given time. Services with time windows only get slots aligned to
+    // their window's slot grid; services without windows can start anywhere. Null if no window has room.
+    public LocalDateTime nextFreeSlot(Long providerId, Integer serviceId, LocalDateTime after) {
+        ReentrantLock lock = lockFor(providerId);
+        lock.lock();
+        try {
+            ProviderCalendar calendar = calendar(providerId);
+            long from = seconds(after);
+            List<ServiceWindowDTO> windows = windowsOf(calendar, serviceId);
+            if (windows.isEmpty()) {
+                long length = defaultDuration.toSeconds();
+                while (true) {
+                    long slot = calendar.bookings.firstFreeStart(from, length);
+                    long blockedUntil = latestOverlappingEnd(calendar, slot, slot + length);
+                    if (blockedUntil == Long.MIN_VALUE) {
+                        return dateTime(slot);
+                    }
+                    from = blockedUntil;
+                }
+            }
+            for (ServiceWindowDTO window : windows) {
+                long windowStart = seconds(window.getStartTime());
+                long windowEnd = seconds(window.getEndTime());
+                long length = window.slotLength(defaultDuration).toSeconds();
+                long slot = alignUp(Math.max(from, windowStart), windowStart, length);
+                while (slot + length <= windowEnd) {
+                    long blockedUntil = latestOverlappingEnd(calendar, slot, slot + length);
+                    if (blockedUntil == Long.MIN_VALUE) {
+                        return dateTime(slot);
+                    }
+                    slot = alignUp(blockedUntil, windowStart, length);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Duration slotLength(Long providerId, Integer serviceId, LocalDateTime start) {
+        ReentrantLock lock = lockFor(providerId);
+        lock.lock();
+        try {
+            return slotLength(calendar(providerId), serviceId, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Latest end of anything booked that overlaps [from, to): booking rows, slot holds, rescheduled
+    // occurrences and the occurrences of recurring appointments near the range. Long.MIN_VALUE if the
+    // range is free.
+    private long latestOverlappingEnd(ProviderCalendar calendar, long from, long to) {
+        long latest = Math.max(calendar.bookings.latestOverlappingEnd(from, to), calendar.moved.latestOverlappingEnd(from, to));
+        latest = Math.max(latest, calendar.holds.latestOverlappingEnd(from, to));
+        LocalDateTime earliestStart = dateTime(from - calendar.longestSlotSeconds + 1);
+        LocalDateTime end = dateTime(to);
+        for (Series series : calendar.series) {
+            Iterator<LocalDateTime> occurrences = series.rule().repeats(earliestStart, end).iterator();
+            while (occurrences.hasNext()) {
+                LocalDateTime occurrence = occurrences.next();
+                if (series.skipped().contains(occurrence)) {
+                    continue;
+                }
+                long occurrenceEnd = seconds(occurrence) + slotLength(calendar, series.serviceId(), occurrence).toSeconds();
+                if (occurrenceEnd > from) {
+                    latest = Math.max(latest, occurrenceEnd);
+                }
+            }
+        }
+        return latest;
+    }
+
+    // Drops the cached calendar, e.g. after the provider's time windows were changed
+    public void invalidate(Long providerId) {
+        withCalendar(providerId, calendar -> {
+            if (calendar.pendingReservations == 0) {
+                calendars.remove(providerId);
+            }
+        });
+    }
+
+    private interface CalendarAction {
+        void apply(ProviderCalendar calendar);
+    }
+
+    private void withCalendar(Long providerId, CalendarAction action) {
+        ReentrantLock lock = lockFor(providerId);
+        lock.lock();
+        try {
+            ProviderCalendar calendar = calendars.get(providerId);
+            if (calendar != null) {
+                action.apply(calendar);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the stripe lock. Calendars are reloaded periodically to pick up bookings made on
+    // other nodes, but never while one of our own reservations is still in flight. Holds loaded from
+    // the table are not expired here, so the calendar is also reloaded once the first of them runs out.
+    private ProviderCalendar calendar(Long providerId) {
+        ProviderCalendar calendar = calendars.get(providerId);
+        long now = System.currentTimeMillis();
+        if (calendar != null && (calendar.pendingReservations > 0
+                || (now - calendar.loadedAtMillis < reloadIntervalMillis && now < calendar.holdsExpireAtMillis))) {
+            return calendar;
+        }
+        // Windows that closed before the lookback cannot apply to any booking loaded below
+        LocalDateTime since = LocalDateTime.now().minus(lookback);
+        List<ServiceWindowDTO> windows = new ArrayList<>(serviceDateTimeRepository.findWindowsByProviderId(providerId, since));
+        windows.removeIf(window -> window.getStartTime() == null || window.getEndTime() == null);
+        windows.sort(Comparator.comparing(ServiceWindowDTO::getStartTime));
+        calendar = new ProviderCalendar(windows, defaultDuration);
+        for (BookedSlotDTO slot : bookingRepository.findActiveSlotsByProviderId(providerId, since)) {
+            if (slot.getBookingDateTime() != null) {
+                long from = seconds(slot.getBookingDateTime());
+                long to = from + slotLength(calendar, slot.getServiceId(), slot.getBookingDateTime()).toSeconds();
+                calendar.bookings.add(slot.getBookingId(), from, to);
+            }
+        }
+        for (SlotHold hold : slotHoldRepository.findActiveByProviderId(providerId, Instant.ofEpochMilli(now))) {
+            long from = seconds(hold.getStartTime());
+            calendar.holds.add(hold.getHoldId(), from, from + slotLength(calendar, hold.getServiceId(), hold.getStartTime()).toSeconds());
+            calendar.holdsExpireAtMillis = Math.min(calendar.holdsExpireAtMillis, hold.getExpiresAt().toEpochMilli());
+        }
+        loadSeries(calendar, providerId, since);
+        calendars.put(providerId, calendar);
+        return calendar;
+    }
+
+    private void loadSeries(ProviderCalendar calendar, Long providerId, LocalDateTime since) {
+        Map<Integer, RecurringSeriesDTO> series = new HashMap<>();
+        for (RecurringSeriesDTO dto : recurringAppointmentRepository.findActiveSeriesByProviderId(providerId, since)) {
+            series.put(dto.getRecurrenceId(), dto);
+        }
+        if (series.isEmpty()) {
+            return;
+        }
+        Map<Integer, Set<LocalDateTime>> skipped = new HashMap<>();
+        long movedIds = 0;
+        for (RecurrenceExceptionDTO exception : recurrenceExceptionRepository.findBySeries(series.keySet(), since)) {
+            skipped.computeIfAbsent(exception.getRecurrenceId(), id -> new HashSet<>()).add(exception.getOriginalDateTime());
+            LocalDateTime moved = exception.getRescheduledDateTime();
+            if (moved != null) {
+                long from = seconds(moved);
+                long to = from + slotLength(calendar, series.get(exception.getRecurrenceId()).getServiceId(), moved).toSeconds();
+                calendar.moved.add(++movedIds, from, to);
+            }
+        }
+        for (RecurringSeriesDTO dto : series.values()) {
+            try {
+                RecurrenceRule rule = RecurrenceRule.of(dto.getRecurrenceType(), dto.getStartDateTime(), dto.getEndDateTime());
+                calendar.series.add(new Series(dto.getServiceId(), rule, skipped.getOrDefault(dto.getRecurrenceId(), Set.of())));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Ignoring recurring appointment " + dto.getRecurrenceId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Length of the window slot the start falls into, or the default for services without windows
+    private Duration slotLength(ProviderCalendar calendar, Integer serviceId, LocalDateTime start) {
+        for (ServiceWindowDTO window : windowsOf(calendar, serviceId)) {
+            if (window.contains(start)) {
+                return window.slotLength(defaultDuration);
+            }
+        }
+        return defaultDuration;
+    }
+
+    private static List<ServiceWindowDTO> windowsOf(ProviderCalendar calendar, Integer serviceId) {
+        List<ServiceWindowDTO> windows = new ArrayList<>();
+        for (ServiceWindowDTO window : calendar.windows) {
+            if (window.getServiceId().equals(serviceId)) {
+                windows.add(window);
+            }
+        }
+        return windows;
+    }
+
+    private static long alignUp(long time, long gridStart, long step) {
+        long offset = time - gridStart;
+        return gridStart + (offset + step - 1) / step * step;
+    }
+
+    private ReentrantLock lockFor(Long providerId) {
+        return stripes[Math.floorMod(Long.hashCode(providerId) * 0x9E3779B9, STRIPES)];
+    }
+
+    private static long seconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime dateTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.Book.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Book.dto.BookingFilterDTO;
+import com.example.Book.dto.BookingSummaryDTO;
+import com.example.Book.repo.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+// Writes bookings to the response as they come off a database cursor. Rows are DTO projections,
+// so nothing accumulates in the persistence context, and output is flushed every flushEvery rows;
+// memory use does not depend on the size of the export.
+@Service
+public class BookingExportService {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final String CSV_HEADER = "bookingId,bookingDateTime,status,consumerId,consumerName,"
+            + "serviceId,serviceName,providerId,providerName,groupId";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${booking.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${booking.export.flush-every:1000}")
+    private int flushEvery;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Returns the number of bookings written
+    public long export(BookingFilterDTO filter, Format format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        Long written = readOnlyTransaction.execute(status -> {
+            try (Stream<BookingSummaryDTO> rows = bookingRepository.streamSummaries(filter, fetchSize)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                long count = 0;
+                Iterator<BookingSummaryDTO> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    BookingSummaryDTO row = iterator.next();
+                    writer.write(format == Format.CSV ? csvLine(row) : objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                    if (++count % flushEvery == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+                return count;
+            } catch (IOException e) {
+                // Usually the client went away; rolling back just closes the cursor
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written == null ? 0 : written;
+    }
+
+    private static String csvLine(BookingSummaryDTO row) {
+        return String.join(",",
+                csv(row.getBookingId()), csv(row.getBookingDateTime()), csv(row.getStatus()),
+                csv(row.getConsumerId()), csv(row.getConsumerName()),
+                csv(row.getServiceId()), csv(row.getServiceName()),
+                csv(row.getProviderId()), csv(row.getProviderName()), csv(row.getGroupId()));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,28 +1,61 @@
 package com.example.Book.service;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.Book.dto.AvailabilityDTO;
 import com.example.Book.dto.BookingDTO;
+import com.example.Book.dto.BookingFilterDTO;
+import com.example.Book.dto.BookingPageDTO;
+import com.example.Book.dto.BookingSummaryDTO;
+import com.example.Book.dto.GroupBookingDTO;
+import com.example.Book.dto.ProviderServiceDTO;
 import com.example.Book.dto.ScheduleDTO;
-import com.example.Book.dto.ServiceDTO;
 import com.example.Book.dto.ServiceProviderDTO;
+import com.example.Book.exception.BookingAccessException;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.AuthenticatedUser;
 import com.example.Book.model.Booking;
 import com.example.Book.model.Consumer;
+import com.example.Book.model.GroupBooking;
+import com.example.Book.model.OutboxEvent;
 import com.example.Book.model.Schedule;
+import com.example.Book.model.ServiceDateTime;
 import com.example.Book.model.ServiceProvider;
 import com.example.Book.model.Services;
 import com.example.Book.repo.BookingRepository;
 import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.GroupBookingRepository;
 import com.example.Book.repo.ScheduleRepository;
 import com.example.Book.repo.ServiceProviderRepository;
 import com.example.Book.repo.ServiceRepository;
+import com.example.Book.util.BookingCursor;
 
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 
 import com.example.Book.dto.*;
 import com.example.Book.repo.*;
@@ -45,84 +78,189 @@ public class BookingService {
     @Autowired
     private ConsumerRepository consumerRepository;
 
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private GroupBookingRepository groupBookingRepository;
+
+    @Autowired
+    private GroupCapacityService groupCapacityService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${booking.write.max-attempts:3}")
+    private int maxWriteAttempts;
+
+    // The listing and export filter on booking.provider_id, so rows saved before it was copied onto
+    // booking would drop out of them. Once every row has it this is a single exists query on startup.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillProviderIds() {
+        if (!bookingRepository.existsWithoutProviderId()) {
+            return;
+        }
+        Integer updated = transactionTemplate.execute(status -> bookingRepository.backfillProviderIds());
+        System.out.println("Backfilled provider_id on " + updated + " bookings");
+    }
+
+    // Day and week lookups seek service_date, so rows saved before it existed need it filled in.
+    // Rows whose legacy date string is not an ISO date are left alone and read again on each startup.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillServiceDates() {
+        Integer updated = transactionTemplate.execute(status -> {
+            int fromStartTime = serviceDateTimeRepository.backfillServiceDatesFromStartTime();
+            int fromDate = 0;
+            for (ServiceDateTime window : serviceDateTimeRepository.findWithoutServiceDate()) {
+                try {
+                    window.setServiceDate(LocalDate.parse(window.getDate().trim()));
+                    fromDate++;
+                } catch (DateTimeParseException e) {
+                    // Free-form value; the row is just not found by day
+                }
+            }
+            return fromStartTime + fromDate;
+        });
+        if (updated != null && updated > 0) {
+            System.out.println("Backfilled service_date on " + updated + " service windows");
+        }
+    }
+
+    // Narrows a listing or export to the caller's own bookings: a consumer's, or those of a provider's
+    // services. Naming another account in the filter is refused rather than silently replaced.
+    public BookingFilterDTO scopeToCaller(AuthenticatedUser caller, BookingFilterDTO filter) {
+        requireCaller(caller);
+        Long providerId = filter.getProviderId();
+        Long consumerId = filter.getConsumerId();
+        if (caller.isConsumer() && (consumerId == null || consumerId.equals(caller.getId()))) {
+            consumerId = caller.getId();
+        } else if (caller.isServiceProvider() && (providerId == null || providerId.equals(caller.getId()))) {
+            providerId = caller.getId();
+        } else {
+            throw new BookingAccessException(HttpStatus.FORBIDDEN, "Only your own bookings can be listed");
+        }
+        return new BookingFilterDTO(providerId, consumerId, filter.getFrom(), filter.getTo(), filter.getStatus());
+    }
+
+    private static void requireCaller(AuthenticatedUser caller) {
+        if (caller == null) {
+            throw new BookingAccessException(HttpStatus.UNAUTHORIZED, "Sign in to manage bookings");
+        }
+    }
+
+    // One projection query per page; a page of size + 1 rows tells whether there is a next one
+    public BookingPageDTO getBookingPage(BookingFilterDTO filter, BookingCursor after, int size) {
+        List<BookingSummaryDTO> rows = bookingRepository.findSummaries(filter, after, size + 1);
+        if (rows.size() <= size) {
+            return new BookingPageDTO(rows, null);
+        }
+        List<BookingSummaryDTO> page = rows.subList(0, size);
+        BookingSummaryDTO last = page.get(size - 1);
+        return new BookingPageDTO(new ArrayList<>(page), new BookingCursor(last.getBookingDateTime(), last.getBookingId()).encode());
     }
     @Autowired
     private ServiceDateTimeRepository serviceDateTimeRepository;
 
 
     public List<ServiceProviderDTO> getAllServiceProvidersWithServices() {
-        // Get all service providers
-        List<ServiceProvider> providers = serviceProviderRepository.findAll();
-
-        // Convert to DTOs with associated services
-        return providers.stream()
-                .map(this::convertToServiceProviderDTO)
-                .collect(Collectors.toList());
-    }
-
-    private ServiceProviderDTO convertToServiceProviderDTO(ServiceProvider provider) {
-        // Find all services for this provider
-        List<Services> services = serviceRepository.findByProvider(provider);
-
-        // Convert services to DTOs
-        List<ServiceDTO> serviceDTOs = services.stream()
-                .map(this::convertToServiceDTO)
-                .collect(Collectors.toList());
-
-        // Create and return the provider DTO with services
-        return new ServiceProviderDTO(
-                provider.getProvider_id(),
-                provider.getUsername(),
-                provider.getEmail(),
-                provider.getAddress(),
-                provider.getContact(),
-                provider.getExperience(),
-                provider.getIsActive(),
-                serviceDTOs
-        );
+        return getServiceProviderCatalog(null, Pageable.unpaged(Sort.by("provider_id"))).getContent();
     }
 
-    private ServiceDTO convertToServiceDTO(Services service) {
-        return new ServiceDTO(
-                service.getService_id(),
-                service.getName(),
-                service.getSpecialization(),
-                service.getPrice(),
-                service.getDescription(),
-                service.getCategory()
-        );
+    // Two queries regardless of catalog size: one projection for the providers, one for their services
+    public Page<ServiceProviderDTO> getServiceProviderCatalog(String category, Pageable pageable) {
+        Page<ServiceProviderDTO> providers = serviceProviderRepository.findCatalogPage(category, pageable);
+        if (providers.isEmpty()) {
+            return providers;
+        }
+
+        Map<Long, ServiceProviderDTO> byId = new HashMap<>();
+        for (ServiceProviderDTO provider : providers) {
+            byId.put(provider.getProviderId(), provider);
+        }
+
+        List<ProviderServiceDTO> services = pageable.isPaged()
+                ? serviceRepository.findCatalogServicesByProviderIds(byId.keySet())
+                : serviceRepository.findCatalogServices(category);
+        for (ProviderServiceDTO service : services) {
+            ServiceProviderDTO provider = byId.get(service.getProviderId());
+            if (provider != null) {
+                provider.getServices().add(service.toServiceDTO());
+            }
+        }
+        return providers;
     }
 
-    public List<ScheduleDTO> getSchedulesByProviderId(Long providerId) {
-        // Check if provider exists
-        ServiceProvider provider = serviceProviderRepository.findById(providerId)
-                .orElseThrow(() -> new RuntimeException("Service Provider not found with id: " + providerId));
+    // Schedules starting in [from, to). An unknown provider simply has none, so there is no separate
+    // lookup of the provider.
+    public Page<ScheduleDTO> getSchedulesByProviderId(Long providerId, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return scheduleRepository.findPageByProviderId(providerId, from, to, pageable);
+    }
 
-        // Get all schedules for this provider
-        List<Schedule> schedules = scheduleRepository.findByProvider(provider);
+    // Each attempt runs in its own transaction. Transient failures (deadlocks, lock timeouts) are
+    // retried a bounded number of times; a slot that is already taken fails fast with a 409.
+    public Booking saveBooking(BookingDTO requestDTO) {
+        return writeWithRetries(() -> insertBooking(requestDTO), requestDTO.getGroupId() != null
+                ? "Consumer " + requestDTO.getConsumerId() + " has already joined group " + requestDTO.getGroupId()
+                : "The provider is already booked at " + requestDTO.getBookingDateTime());
+    }
 
-        // Convert to DTOs
-        return schedules.stream()
-                .map(this::convertToScheduleDTO)
-                .collect(Collectors.toList());
+    // All-or-nothing insert of many bookings: consumers and services are loaded with one query each,
+    // and the rows go out as JDBC batches
+    public List<Booking> saveBookings(List<BookingDTO> requestDTOs) {
+        return writeWithRetries(() -> insertBookings(requestDTOs),
+                "One of the requested slots is already booked");
     }
 
-    private ScheduleDTO convertToScheduleDTO(Schedule schedule) {
-        ServiceProvider provider = schedule.getProvider();
-        //Consumer consumer = schedule.getConsumer();
+    private <T> T writeWithRetries(Supplier<T> write, String conflictMessage) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write.get());
+            } catch (DataIntegrityViolationException e) {
+                if (isSlotConflict(e)) {
+                    throw new BookingConflictException(conflictMessage);
+                }
+                throw e;
+            } catch (TransientDataAccessException e) {
+                if (attempt >= maxWriteAttempts) {
+                    throw e;
+                }
+                System.out.println("Retrying booking after transient failure (attempt " + attempt + "): " + e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
 
-        return new ScheduleDTO(
-                schedule.getScheduleId(),
-                provider.getProvider_id(),
-                //consumer.getConsumerId(),
-                schedule.getDateTime()
-        );
+    private static boolean isSlotConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains("ux_booking_slot_key");
     }
 
-    @Transactional
-    public Booking saveBooking(BookingDTO requestDTO) {
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(10, 50) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying booking", e);
+        }
+    }
+
+    private Booking insertBooking(BookingDTO requestDTO) {
+        if (requestDTO.getGroupId() != null) {
+            return joinGroup(requestDTO.getGroupId(), requestDTO.getConsumerId());
+        }
+        if (requestDTO.getBookingDateTime() == null) {
+            throw new RuntimeException("Booking date and time are required");
+        }
+
         // Fetch related entities
         Consumer consumer = consumerRepository.findById(Long.valueOf(requestDTO.getConsumerId()))
                 .orElseThrow(() -> new RuntimeException("Consumer not found with id: " + requestDTO.getConsumerId()));
@@ -130,23 +268,200 @@ public class BookingService {
         Services service = serviceRepository.findById(requestDTO.getServiceId())
                 .orElseThrow(() -> new RuntimeException("Service not found with id: " + requestDTO.getServiceId()));
 
-        /*// GroupBooking is optional
-        GroupBooking group = null;
-        if (requestDTO.getGroupId() != null) {
-            group = groupBookingRepository.findById(requestDTO.getGroupId())
-                    .orElseThrow(() -> new RuntimeException("Group not found with id: " + requestDTO.getGroupId()));
-        }*/
+        if (requestDTO.getHoldId() != null) {
+            slotHoldService.claim(requestDTO.getHoldId(), requestDTO.getConsumerId(), service.getService_id(),
+                    requestDTO.getBookingDateTime());
+        }
+        Booking saved = persistWithHold(newBooking(consumer, service, requestDTO.getBookingDateTime()), requestDTO.getHoldId());
+        // Flushing here surfaces a slot key conflict immediately
+        bookingRepository.flush();
+        return saved;
+    }
+
+    // Creates the group together with the leader's booking, which holds the provider's slot for the session
+    public Booking createGroupBooking(GroupBookingDTO requestDTO) {
+        if (requestDTO.getBookingDateTime() == null) {
+            throw new RuntimeException("Booking date and time are required");
+        }
+        if (requestDTO.getMaxCapacity() != null && requestDTO.getMaxCapacity() < 1) {
+            throw new RuntimeException("A group needs room for at least its leader");
+        }
+        return writeWithRetries(() -> {
+            Consumer leader = consumerRepository.findById(Long.valueOf(requestDTO.getGroupLeaderId()))
+                    .orElseThrow(() -> new RuntimeException("Consumer not found with id: " + requestDTO.getGroupLeaderId()));
+            Services service = serviceRepository.findById(requestDTO.getServiceId())
+                    .orElseThrow(() -> new RuntimeException("Service not found with id: " + requestDTO.getServiceId()));
+
+            GroupBooking group = new GroupBooking();
+            group.setGroupName(requestDTO.getGroupName());
+            group.setGroupLeader(leader);
+            group.setService(service);
+            group.setSessionDateTime(requestDTO.getBookingDateTime());
+            group.setNoOfMembers(1);
+            group.setMaxCapacity(requestDTO.getMaxCapacity());
+            groupBookingRepository.save(group);
+
+            Booking booking = newBooking(leader, service, requestDTO.getBookingDateTime());
+            booking.setGroup(group);
+            Booking saved = persistWithHold(booking, null);
+            bookingRepository.flush();
+            return saved;
+        }, "The provider is already booked at " + requestDTO.getBookingDateTime());
+    }
+
+    // Members book the group's session without holding a slot of their own. The seat is taken from
+    // the in-memory counter first and written to the group row last, after the booking insert.
+    private Booking joinGroup(Integer groupId, Integer consumerId) {
+        GroupBooking group = groupBookingRepository.findById(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found with id: " + groupId));
+        Consumer consumer = consumerRepository.findById(Long.valueOf(consumerId))
+                .orElseThrow(() -> new RuntimeException("Consumer not found with id: " + consumerId));
+        if (group.getService() == null || group.getSessionDateTime() == null) {
+            throw new RuntimeException("Group " + groupId + " has no session to join");
+        }
+        if (Boolean.TRUE.equals(group.getClosed())) {
+            throw new BookingConflictException("Group " + groupId + " is closed");
+        }
+
+        groupCapacityService.reserve(group);
+        Booking booking = new Booking();
+        booking.setConsumer(consumer);
+        booking.setServices(group.getService());
+        booking.setGroup(group);
+        booking.setBookingDateTime(group.getSessionDateTime());
+        booking.setStatus(true);
+        booking.setPrice(group.getService().getPrice());
+        booking.setSlotKey(Booking.groupSlotKey(groupId, consumer.getClient_id()));
+        Booking saved = bookingRepository.save(booking);
+        outboxService.record(OutboxEvent.BOOKING_CREATED, saved);
+        bookingRepository.flush();
+        groupCapacityService.confirm(groupId);
+        return saved;
+    }
+
+    private List<Booking> insertBookings(List<BookingDTO> requestDTOs) {
+        Set<Long> consumerIds = new HashSet<>();
+        Set<Integer> serviceIds = new HashSet<>();
+        for (BookingDTO requestDTO : requestDTOs) {
+            if (requestDTO.getConsumerId() == null || requestDTO.getServiceId() == null || requestDTO.getBookingDateTime() == null) {
+                throw new RuntimeException("Every booking needs a consumer, a service and a date and time");
+            }
+            if (requestDTO.getGroupId() != null || requestDTO.getHoldId() != null) {
+                throw new RuntimeException("Group bookings and held slots cannot be booked in bulk");
+            }
+            consumerIds.add(Long.valueOf(requestDTO.getConsumerId()));
+            serviceIds.add(requestDTO.getServiceId());
+        }
+
+        Map<Long, Consumer> consumers = new HashMap<>();
+        for (Consumer consumer : consumerRepository.findAllById(consumerIds)) {
+            consumers.put(consumer.getClient_id(), consumer);
+        }
+        Map<Integer, Services> services = new HashMap<>();
+        for (Services service : serviceRepository.findAllWithProviderByIds(serviceIds)) {
+            services.put(service.getService_id(), service);
+        }
+        consumerIds.removeAll(consumers.keySet());
+        serviceIds.removeAll(services.keySet());
+        if (!consumerIds.isEmpty() || !serviceIds.isEmpty()) {
+            throw new RuntimeException("Unknown consumers " + consumerIds + " or services " + serviceIds);
+        }
+
+        List<Booking> saved = new ArrayList<>(requestDTOs.size());
+        for (BookingDTO requestDTO : requestDTOs) {
+            saved.add(persistWithHold(newBooking(consumers.get(Long.valueOf(requestDTO.getConsumerId())),
+                    services.get(requestDTO.getServiceId()), requestDTO.getBookingDateTime()), null));
+        }
+        bookingRepository.flush();
+        return saved;
+    }
 
+    private static Booking newBooking(Consumer consumer, Services service, LocalDateTime bookingDateTime) {
         // Create and populate the booking
         Booking booking = new Booking();
         booking.setConsumer(consumer);
         booking.setServices(service);
-        //booking.setGroup(group);
-        booking.setBookingDateTime(requestDTO.getBookingDateTime());
+        booking.setBookingDateTime(bookingDateTime);
         booking.setStatus(true); // Default to active/confirmed
+        booking.setPrice(service.getPrice());
+        booking.setSlotKey(Booking.slotKey(service.getProvider().getProvider_id(), bookingDateTime));
+        return booking;
+    }
 
-        // Save and return
-        return bookingRepository.save(booking);
+    // Claims the slot in the availability index first; throws if the provider is already booked here.
+    // The unique slot key catches bookings for the same slot made through other nodes when flushed.
+    // The sequence id is assigned on save, so the insert itself can wait for the next batch.
+    // slotHoldId is the claimed checkout hold the booking replaces, if any.
+    private Booking persistWithHold(Booking booking, Long slotHoldId) {
+        Long providerId = booking.getServices().getProvider().getProvider_id();
+        Integer serviceId = booking.getServices().getService_id();
+        long hold = availabilityService.reserve(providerId, serviceId, booking.getBookingDateTime(), slotHoldId);
+        Booking saved;
+        try {
+            saved = bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            availabilityService.release(providerId, hold);
+            throw e;
+        }
+        availabilityService.confirmOnCommit(providerId, hold, saved.getBookingId());
+        outboxService.record(OutboxEvent.BOOKING_CREATED, saved);
+        eventPublisher.publishEvent(new SlotSearchService.SlotChanged(providerId, saved.getBookingDateTime(),
+                availabilityService.slotLength(providerId, serviceId, saved.getBookingDateTime()), true));
+        return saved;
+    }
+
+    // The booking row stays, marked cancelled and without a slot key, so its slot can be booked again.
+    // The slot (or group seat) is freed here once the cancellation commits, everything else reacts
+    // to the BOOKING_CANCELLED event.
+    // Only the booking's consumer or the provider of its service may cancel it
+    public Booking cancelBooking(Long bookingId, AuthenticatedUser caller) {
+        requireCaller(caller);
+        return transactionTemplate.execute(status -> {
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
+            boolean party = caller.isConsumer()
+                    ? caller.getId().equals(booking.getConsumer().getClient_id())
+                    : caller.isServiceProvider() && caller.getId().equals(booking.getServices().getProvider().getProvider_id());
+            if (!party) {
+                throw new BookingAccessException(HttpStatus.FORBIDDEN, "Only your own bookings can be cancelled");
+            }
+            GroupBooking group = booking.getGroup();
+            boolean holdsSlot = booking.holdsSlot();
+            // The leader's booking holds the session's slot; once that is freed nobody may join any more
+            if (group != null && holdsSlot && groupBookingRepository.close(group.getGroupId()) == 0) {
+                throw new BookingConflictException("Group " + group.getGroupId() + " still has members");
+            }
+            outboxService.record(OutboxEvent.BOOKING_CANCELLED, booking);
+            if (bookingRepository.markCancelled(bookingId) == 0) {
+                throw new BookingConflictException("Booking " + bookingId + " is already cancelled");
+            }
+            booking.setStatus(false);
+            booking.setSlotKey(null);
+
+            if (group != null) {
+                groupCapacityService.release(group.getGroupId());
+            }
+            if (holdsSlot) {
+                Long providerId = booking.getServices().getProvider().getProvider_id();
+                availabilityService.releaseOnCommit(providerId, bookingId);
+                eventPublisher.publishEvent(new SlotSearchService.SlotChanged(providerId, booking.getBookingDateTime(),
+                        availabilityService.slotLength(providerId, booking.getServices().getService_id(), booking.getBookingDateTime()), false));
+            }
+            return booking;
+        });
+    }
+
+    public AvailabilityDTO checkAvailability(Integer serviceId, LocalDateTime dateTime) {
+        Services service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new RuntimeException("Service not found with id: " + serviceId));
+        Long providerId = service.getProvider().getProvider_id();
+        return new AvailabilityDTO(
+                serviceId,
+                dateTime,
+                (int) availabilityService.slotLength(providerId, serviceId, dateTime).toMinutes(),
+                availabilityService.isFree(providerId, serviceId, dateTime),
+                availabilityService.nextFreeSlot(providerId, serviceId, dateTime)
+        );
     }
 
     public Schedule createSchedule(ScheduleDTO scheduleDTO) {
@@ -164,7 +479,18 @@ public class BookingService {
         return scheduleRepository.save(schedule);
     }
 
-    public List<ServiceDateTimeDTO> getServiceDateTimeByProviderId(Long providerId) {
-        return serviceDateTimeRepository.findByProviderId(providerId);
+    public Page<ServiceDateTimeDTO> getServiceDateTimeByProviderId(Long providerId, LocalDateTime from, LocalDateTime to,
+                                                                   Pageable pageable) {
+        return serviceDateTimeRepository.findPageByProviderId(providerId, from, to, pageable);
+    }
+
+    public List<ServiceDateTimeDTO> getServiceDateTimesForDay(Long providerId, LocalDate day) {
+        return serviceDateTimeRepository.findByProviderIdAndDays(providerId, day, day);
+    }
+
+    // Monday to Sunday of the week containing the given day
+    public List<ServiceDateTimeDTO> getServiceDateTimesForWeek(Long providerId, LocalDate day) {
+        LocalDate monday = day.with(DayOfWeek.MONDAY);
+        return serviceDateTimeRepository.findByProviderIdAndDays(providerId, monday, monday.plusDays(6));
     }
 }
\ No newline at end of file
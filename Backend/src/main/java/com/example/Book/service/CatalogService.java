@@ -0,0 +1,116 @@
+package com.example.Book.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.Book.dto.ProviderServiceDTO;
+import com.example.Book.dto.ServiceProviderDTO;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Immutable in-memory copy of the full provider catalog, served as pre-serialized (and pre-gzipped)
+// JSON. Changes to a provider or its services replace just that provider's entry once the change
+// has committed; a periodic full rebuild picks up changes made through other nodes.
+@Service
+public class CatalogService {
+
+    // Published after a provider or one of its services was created or changed
+    public record ProviderChanged(Long providerId) {
+    }
+
+    public record Snapshot(long version, String etag, List<ServiceProviderDTO> providers, byte[] json, byte[] gzip) {
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+    private long version;
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProviderChanged(ProviderChanged event) {
+        if (snapshot == null) {
+            // Built lazily on the first request, with the change already included
+            return;
+        }
+        Map<Long, ServiceProviderDTO> providers = new TreeMap<>();
+        for (ServiceProviderDTO provider : snapshot.providers()) {
+            providers.put(provider.getProviderId(), provider);
+        }
+        serviceProviderRepository.findCatalogProvider(event.providerId()).ifPresentOrElse(provider -> {
+            for (ProviderServiceDTO service : serviceRepository.findCatalogServicesByProviderIds(List.of(event.providerId()))) {
+                provider.getServices().add(service.toServiceDTO());
+            }
+            providers.put(provider.getProviderId(), provider);
+        }, () -> providers.remove(event.providerId()));
+        publish(new ArrayList<>(providers.values()));
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.refresh-interval-ms:300000}", initialDelayString = "${catalog.refresh-interval-ms:300000}")
+    public synchronized Snapshot rebuild() {
+        List<ServiceProviderDTO> providers = bookingService.getAllServiceProvidersWithServices();
+        return publish(providers);
+    }
+
+    private Snapshot publish(List<ServiceProviderDTO> providers) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(providers);
+            String etag = etag(json);
+            Snapshot current = snapshot;
+            if (current != null && current.etag().equals(etag)) {
+                // Nothing visible changed; keep the version so clients keep their 304s
+                return current;
+            }
+            snapshot = new Snapshot(++version, etag, Collections.unmodifiableList(providers), json, gzip(json));
+            return snapshot;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize provider catalog", e);
+        }
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.Book.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.GroupBooking;
+import com.example.Book.repo.GroupBookingRepository;
+
+// Seats left per group, kept in an atomic counter so a rush on a popular session is mostly settled
+// in memory: once the counter reaches zero, joins are turned away without touching the database,
+// and at most as many transactions as there are free seats ever wait on the group row.
+// The conditional update in GroupBookingRepository stays the source of truth across nodes.
+@Service
+public class GroupCapacityService {
+
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+
+    @Autowired
+    private GroupBookingRepository groupBookingRepository;
+
+    private final Map<Integer, AtomicInteger> remainingSeats = new ConcurrentHashMap<>();
+
+    // Takes a seat from the counter for the current transaction; it goes back if the transaction
+    // does not commit. Throws BookingConflictException when the group is full.
+    public void reserve(GroupBooking group) {
+        AtomicInteger remaining = remainingSeats.computeIfAbsent(group.getGroupId(), id -> new AtomicInteger(seatsLeft(group)));
+        boolean reloaded = false;
+        while (true) {
+            int seats = remaining.get();
+            if (seats > 0) {
+                if (remaining.compareAndSet(seats, seats - 1)) {
+                    break;
+                }
+                continue;
+            }
+            // Seats freed on another node never reach this counter. The group was just loaded, so
+            // check it once before turning the join away; claimSeat still has the final say.
+            int left = seatsLeft(group);
+            if (reloaded || left <= 0) {
+                throw new BookingConflictException("Group " + group.getGroupId() + " is full");
+            }
+            reloaded = true;
+            AtomicInteger fresh = new AtomicInteger(left);
+            remainingSeats.replace(group.getGroupId(), remaining, fresh);
+            remaining = remainingSeats.computeIfAbsent(group.getGroupId(), id -> fresh);
+        }
+        AtomicInteger reserved = remaining;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reserved.incrementAndGet();
+                    }
+                }
+            });
+        }
+    }
+
+    // Records the seat in the database. Call it as late as possible in the transaction, since the
+    // update holds the group row lock until commit.
+    public void confirm(Integer groupId) {
+        if (groupBookingRepository.claimSeat(groupId) == 0) {
+            // Another node filled the group; reload the count on the next join
+            remainingSeats.remove(groupId);
+            throw new BookingConflictException("Group " + groupId + " is full");
+        }
+    }
+
+    // Gives a seat back when a member cancels; the count is reloaded once that has committed
+    public void release(Integer groupId) {
+        groupBookingRepository.releaseSeat(groupId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(groupId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(groupId);
+            }
+        });
+    }
+
+    // Drops the cached count, e.g. after members left or the capacity was changed
+    public void invalidate(Integer groupId) {
+        remainingSeats.remove(groupId);
+    }
+
+    private static int seatsLeft(GroupBooking group) {
+        if (group.getMaxCapacity() == null) {
+            return UNLIMITED;
+        }
+        int members = group.getNoOfMembers() == null ? 0 : group.getNoOfMembers();
+        return Math.max(0, group.getMaxCapacity() - members);
+    }
+}
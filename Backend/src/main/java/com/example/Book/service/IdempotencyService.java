@@ -0,0 +1,192 @@
+package com.example.Book.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Book.exception.IdempotencyKeyException;
+import com.example.Book.model.IdempotencyRecord;
+import com.example.Book.repo.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+// Runs a write at most once per Idempotency-Key. Finished responses are kept in a bounded cache and
+// in idempotency_record until their TTL; concurrent duplicates on this node wait for the one
+// execution in flight, and the claim row stops other nodes from running the same key meanwhile.
+// Only successful responses are stored, so a request that failed can be retried with the same key.
+@Service
+public class IdempotencyService {
+
+    public record Result(int statusCode, String body, boolean replayed) {
+    }
+
+    private record Stored(String requestHash, int statusCode, String body) {
+    }
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Cache<String, Stored> completed;
+    private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+    private TransactionTemplate ownTransaction;
+
+    public IdempotencyService(@Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.claim-timeout:1m}") Duration claimTimeout,
+                              @Value("${idempotency.cache.max-size:10000}") long cacheMaxSize) {
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @PostConstruct
+    void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // scope keeps keys of different callers apart; request is what the key must keep referring to
+    public Result execute(String scope, String key, Object request, HttpStatus successStatus, Supplier<?> action) {
+        String keyHash = sha256(scope + "\n" + key);
+        String requestHash = sha256(toJson(request));
+
+        Stored cached = completed.getIfPresent(keyHash);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+        CompletableFuture<Stored> execution = new CompletableFuture<>();
+        CompletableFuture<Stored> running = inFlight.putIfAbsent(keyHash, execution);
+        if (running != null) {
+            return replay(await(running), requestHash);
+        }
+        try {
+            Stored earlier = claim(keyHash, requestHash);
+            if (earlier != null) {
+                completed.put(keyHash, earlier);
+                execution.complete(earlier);
+                return replay(earlier, requestHash);
+            }
+            Stored stored;
+            try {
+                stored = new Stored(requestHash, successStatus.value(), toJson(action.get()));
+            } catch (RuntimeException e) {
+                ownTransaction.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(keyHash));
+                throw e;
+            }
+            complete(keyHash, stored);
+            completed.put(keyHash, stored);
+            execution.complete(stored);
+            return new Result(stored.statusCode(), stored.body(), false);
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(keyHash, execution);
+        }
+    }
+
+    // Inserts the claim row. Returns the stored response if the key was already completed, possibly
+    // by another node, and takes over claims whose node never finished.
+    private Stored claim(String keyHash, String requestHash) {
+        Instant now = Instant.now();
+        try {
+            ownTransaction.executeWithoutResult(status ->
+                    idempotencyRecordRepository.insertClaim(keyHash, requestHash, now, now.plus(claimTimeout)));
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            return ownTransaction.execute(status -> {
+                IdempotencyRecord record = idempotencyRecordRepository.findById(keyHash).orElse(null);
+                if (record == null || record.getExpiresAt().isBefore(now)) {
+                    idempotencyRecordRepository.save(new IdempotencyRecord(keyHash, requestHash, null, null, now, now.plus(claimTimeout)));
+                    return null;
+                }
+                if (record.getStatusCode() == null) {
+                    throw new IdempotencyKeyException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+                }
+                return new Stored(record.getRequestHash(), record.getStatusCode(), record.getResponseBody());
+            });
+        }
+    }
+
+    private void complete(String keyHash, Stored stored) {
+        Instant now = Instant.now();
+        ownTransaction.executeWithoutResult(status -> idempotencyRecordRepository.save(
+                new IdempotencyRecord(keyHash, stored.requestHash(), stored.statusCode(), stored.body(), now, now.plus(ttl))));
+    }
+
+    private static Result replay(Stored stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY, "The Idempotency-Key was already used for a different request");
+        }
+        return new Result(stored.statusCode(), stored.body(), true);
+    }
+
+    // Duplicates share the outcome of the execution they waited for, including its exception
+    private static Stored await(CompletableFuture<Stored> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}", initialDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Integer purged = ownTransaction.execute(status -> idempotencyRecordRepository.deleteExpired(Instant.now()));
+        if (purged != null && purged > 0) {
+            System.out.println("Purged " + purged + " expired idempotency records");
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
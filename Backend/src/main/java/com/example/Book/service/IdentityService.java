@@ -0,0 +1,111 @@
+package com.example.Book.service;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.UserIdentity;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.UserIdentityRepository;
+
+// Resolves an email to its account with one lookup on the unique user_identity index,
+// followed by a primary-key load of the owning row
+@Service
+public class IdentityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdentityService.class);
+
+    @Autowired
+    private UserIdentityRepository userIdentityRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Optional<UserIdentity> resolve(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        return userIdentityRepository.findByEmail(normalize(email));
+    }
+
+    public boolean isRegistered(String email) {
+        return email != null && userIdentityRepository.existsByEmail(normalize(email));
+    }
+
+    public Optional<Consumer> findConsumer(String email) {
+        return resolve(email)
+                .filter(identity -> UserIdentity.CONSUMER.equals(identity.getRole()))
+                .flatMap(identity -> consumerRepository.findById(identity.getOwnerId()));
+    }
+
+    public Optional<ServiceProvider> findServiceProvider(String email) {
+        return resolve(email)
+                .filter(identity -> UserIdentity.SERVICE_PROVIDER.equals(identity.getRole()))
+                .flatMap(identity -> serviceProviderRepository.findById(identity.getOwnerId()));
+    }
+
+    // Returns either a Consumer or a ServiceProvider
+    public Optional<?> findUser(String email) {
+        Optional<UserIdentity> identity = resolve(email);
+        if (identity.isEmpty()) {
+            return Optional.empty();
+        }
+        if (UserIdentity.CONSUMER.equals(identity.get().getRole())) {
+            return consumerRepository.findById(identity.get().getOwnerId());
+        }
+        return serviceProviderRepository.findById(identity.get().getOwnerId());
+    }
+
+    // Fails on the unique index if the email is already used by any account
+    public UserIdentity register(String email, String role, Long ownerId) {
+        return userIdentityRepository.saveAndFlush(new UserIdentity(null, normalize(email), role, ownerId));
+    }
+
+    @Transactional
+    public void changeEmail(String previousEmail, String newEmail) {
+        if (newEmail == null || normalize(newEmail).equals(normalize(previousEmail))) {
+            return;
+        }
+        UserIdentity identity = resolve(previousEmail)
+                .orElseThrow(() -> new RuntimeException("No account registered with email: " + previousEmail));
+        if (isRegistered(newEmail)) {
+            throw new RuntimeException("Email already registered!");
+        }
+        identity.setEmail(normalize(newEmail));
+        userIdentityRepository.saveAndFlush(identity);
+    }
+
+    // Picks up accounts created before the identity table existed (see V3__Create_User_Identity.sql).
+    // Once every distinct email has its identity this is a single count on startup.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (!needsBackfill()) {
+            return;
+        }
+        int consumers = userIdentityRepository.backfillConsumers();
+        int providers = userIdentityRepository.backfillServiceProviders();
+        logger.info("Backfilled user identities: {} consumers, {} service providers", consumers, providers);
+    }
+
+    boolean needsBackfill() {
+        return userIdentityRepository.count() < userIdentityRepository.countAccountEmails();
+    }
+}
@@ -1,55 +1,101 @@
 package com.example.Book.service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
-
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.ProtectedHeader;
 
 @Service
 public class JWTService {
 
-    private String secretKey = "";
+    private static final Logger logger = LoggerFactory.getLogger(JWTService.class);
+
+    public static final long TOKEN_VALIDITY_MS = 1000L * 60 * 60 * 10; // 10 hours expiry
+
+    private final SigningKeyRing keyRing;
+
+    // Built once, the parser is immutable and thread-safe; it picks the pre-built key for each token's kid
+    private final JwtParser parser;
 
-    public JWTService() {
+    // Claims of tokens that already passed signature verification, keyed by SHA-256 of the token
+    // and dropped as soon as the token itself expires
+    private final Cache<ByteBuffer, Claims> verifiedClaims;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
         try {
-            KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey sk = keyGen.generateKey();
-            secretKey = Base64.getEncoder().encodeToString(sk.getEncoded());
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+            throw new IllegalStateException(e);
         }
+    });
+
+    public JWTService(SigningKeyRing keyRing,
+                      @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize) {
+        this.keyRing = keyRing;
+        parser = Jwts.parser()
+                .keyLocator(header -> header instanceof ProtectedHeader protectedHeader
+                        ? keyRing.verificationKey(protectedHeader.getKeyId())
+                        : null)
+                .build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer digest, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String username) {
         Map<String, Object> claims = new HashMap<>();
+        SigningKeyRing.ActiveKey signingKey = keyRing.activeKey();
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours expiry
-                .signWith(getKey())
+                .header().keyId(signingKey.kid()).and()
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
+                .subject(username)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY_MS))
+                .signWith(signingKey.key())
                 .compact();
     }
 
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    public String extractUserName(String token) {
+    // Verifies the signature and expiry once per distinct token; repeated requests with the
+    // same token are answered from the cache without touching the HMAC or the JSON parser
+    public Claims verifyToken(String token) {
         if (token == null) {
             throw new IllegalArgumentException("Token cannot be null");
         }
@@ -58,21 +104,26 @@ public class JWTService {
         if (token.isEmpty()) {
             throw new IllegalArgumentException("Token cannot be empty");
         }
-        return extractClaim(token, Claims::getSubject);
+
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        Claims claims = verifiedClaims.getIfPresent(digest);
+        if (claims == null) {
+            claims = parseClaims(token);
+            if (claims.getExpiration() == null) {
+                throw new IllegalArgumentException("Invalid token format: missing expiration");
+            }
+            verifiedClaims.put(digest, claims);
+        }
+        return claims;
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimResolver.apply(claims);
+    public String extractUserName(String token) {
+        return verifyToken(token).getSubject();
     }
 
-    private Claims extractAllClaims(String token) {
+    private Claims parseClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getKey())
-                    .build()
-                    .parseSignedClaims(token.trim())
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid token format: " + e.getMessage());
         }
@@ -83,20 +134,23 @@ public class JWTService {
             return false;
         }
         try {
-            token = token.trim();
-            final String userName = extractUserName(token);
-            return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateToken(verifyToken(token), userDetails);
         } catch (Exception e) {
-            System.out.println("Token validation failed: " + e.getMessage());
+            logger.debug("Token validation failed: {}", e.getMessage());
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        if (claims == null || userDetails == null) {
+            return false;
+        }
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 }
@@ -1,50 +1,88 @@
 package com.example.Book.service;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.Book.model.AuthenticatedUser;
 import com.example.Book.model.Consumer;
 import com.example.Book.model.ServiceProvider;
-import com.example.Book.repo.ConsumerRepository;
-import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.model.UserIdentity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Service
 public class MyUserDetailsService implements UserDetailsService {
 
     @Autowired
-    private ConsumerRepository consumerRepository;
+    private IdentityService identityService;
 
-    @Autowired
-    private ServiceProviderRepository serviceProviderRepository;
+    // Immutable snapshot of what a UserDetails is built from. A fresh User is handed out on every
+    // call so that erasing credentials on one authentication can never affect the cached entry.
+    private record CachedPrincipal(String email, String password, String role, Long id, String displayName) {
+    }
+
+    private final Cache<String, CachedPrincipal> principals;
+
+    public MyUserDetailsService(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                                @Value("${security.principal-cache.ttl:5m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Optional<Consumer> consumer = consumerRepository.findByEmail(email);
-        if (consumer.isPresent()) {
-            Consumer cons = consumer.get();
-            return User.builder()
-                    .username(cons.getEmail())
-                    .password(cons.getPassword())
-                    .roles("CONSUMER")
-                    .build();
+        if (email == null) {
+            throw new UsernameNotFoundException("User not found with email: null");
+        }
+        CachedPrincipal principal = principals.get(cacheKey(email), key -> loadPrincipal(email));
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
         }
+        return new AuthenticatedUser(principal.email(), principal.password(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())),
+                principal.id(), principal.role(), principal.displayName());
+    }
+
+    // Must be called whenever the account behind an email is created, changes its email or password
+    public void evictPrincipal(String email) {
+        if (email != null) {
+            principals.invalidate(cacheKey(email));
+        }
+    }
 
-        Optional<ServiceProvider> provider = serviceProviderRepository.findByEmail(email);
-        if (provider.isPresent()) {
-            ServiceProvider sp = provider.get();
-            return User.builder()
-                    .username(sp.getEmail())
-                    .password(sp.getPassword())
-                    .roles("SERVICE_PROVIDER")
-                    .build();
+    private CachedPrincipal loadPrincipal(String email) {
+        Optional<?> user = identityService.findUser(email);
+        if (user.isPresent() && user.get() instanceof Consumer cons) {
+            return new CachedPrincipal(cons.getEmail(), cons.getPassword(), UserIdentity.CONSUMER,
+                    cons.getClient_id(), cons.getUsername());
         }
+        if (user.isPresent() && user.get() instanceof ServiceProvider sp) {
+            return new CachedPrincipal(sp.getEmail(), sp.getPassword(), UserIdentity.SERVICE_PROVIDER,
+                    sp.getProvider_id(), sp.getUsername());
+        }
+
+        // Misses are not cached, so a later registration is visible immediately
+        return null;
+    }
 
-        throw new UsernameNotFoundException("User not found with email: " + email);
+    private static String cacheKey(String email) {
+        return IdentityService.normalize(email);
     }
 }
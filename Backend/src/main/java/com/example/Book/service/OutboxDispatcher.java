@@ -0,0 +1,163 @@
+package com.example.Book.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Book.model.OutboxEvent;
+import com.example.Book.model.OutboxOffset;
+import com.example.Book.repo.OutboxEventRepository;
+import com.example.Book.repo.OutboxOffsetRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Drains the booking outbox in two steps. Sequencing numbers committed events under the sequencer's
+// offset lock, so positions follow commit order even though event ids do not. Delivery then hands each
+// subscriber the events after its own offset, one batch per transaction; a failing subscriber
+// holds back only itself. Events are purged once every durable subscriber is past them.
+@Service
+public class OutboxDispatcher {
+
+    private static final String SEQUENCER = "__sequencer";
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofMinutes(1);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private List<OutboxSubscriber> subscribers;
+
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.retention:7d}")
+    private Duration retention;
+
+    @Value("${outbox.node-local-stale-after:1h}")
+    private Duration nodeLocalStaleAfter;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}", initialDelayString = "${outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        // Full batches mean there is a backlog
+        int sequenced;
+        do {
+            sequenced = sequence();
+        } while (sequenced == batchSize);
+        for (OutboxSubscriber subscriber : subscribers) {
+            try {
+                int delivered;
+                do {
+                    delivered = deliver(subscriber);
+                } while (delivered == batchSize);
+            } catch (RuntimeException e) {
+                System.out.println("Outbox subscriber " + subscriber.name() + " failed, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    // Returns the number of events sequenced
+    int sequence() {
+        Integer sequenced = transactionTemplate.execute(status -> {
+            OutboxOffset offset = lockOffset(SEQUENCER, 0L);
+            List<OutboxEvent> events = outboxEventRepository.findUnsequenced(PageRequest.of(0, batchSize));
+            long position = offset.getPosition();
+            for (OutboxEvent event : events) {
+                event.setPosition(++position);
+            }
+            offset.setPosition(position);
+            return events.size();
+        });
+        return sequenced == null ? 0 : sequenced;
+    }
+
+    // Returns the number of events delivered
+    int deliver(OutboxSubscriber subscriber) {
+        Integer delivered = transactionTemplate.execute(status -> {
+            OutboxOffset offset = lockOffset(subscriber.name(),
+                    subscriber.replaysHistory() ? 0L : outboxEventRepository.findLastPosition());
+            List<OutboxEvent> events = outboxEventRepository.findAfter(offset.getPosition(), PageRequest.of(0, batchSize));
+            if (!subscriber.replaysHistory()) {
+                keepAlive(offset);
+            }
+            if (events.isEmpty()) {
+                return 0;
+            }
+            subscriber.handle(events);
+            offset.setPosition(events.get(events.size() - 1).getPosition());
+            return events.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+
+    // Two nodes creating the same missing row race on the primary key; the loser retries next poll
+    private OutboxOffset lockOffset(String name, long initialPosition) {
+        return outboxOffsetRepository.lockBySubscriber(name)
+                .orElseGet(() -> outboxOffsetRepository.saveAndFlush(new OutboxOffset(name, initialPosition)));
+    }
+
+    // Written at most once per interval, so an idle node does not update its rows on every poll
+    private void keepAlive(OutboxOffset offset) {
+        Instant now = Instant.now();
+        if (offset.getHeartbeatAt() == null || offset.getHeartbeatAt().isBefore(now.minus(HEARTBEAT_INTERVAL))) {
+            offset.setNodeLocal(true);
+            offset.setHeartbeatAt(now);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}", initialDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purgeDelivered() {
+        Integer purged = transactionTemplate.execute(status -> {
+            int dropped = outboxOffsetRepository.deleteNodeLocalIdleSince(Instant.now().minus(nodeLocalStaleAfter));
+            if (dropped > 0) {
+                System.out.println("Dropped " + dropped + " offsets of stopped nodes");
+            }
+            List<String> durable = subscriberNames(true);
+            List<OutboxOffset> offsets = outboxOffsetRepository.findAllById(durable);
+            // A durable subscriber without an offset yet still has the whole log to read
+            if (offsets.size() < durable.size()) {
+                return 0;
+            }
+            long delivered = offsets.stream().mapToLong(OutboxOffset::getPosition).min().orElse(Long.MAX_VALUE);
+            return outboxEventRepository.deleteDeliveredBefore(delivered, Instant.now().minus(retention));
+        });
+        if (purged != null && purged > 0) {
+            System.out.println("Purged " + purged + " outbox events");
+        }
+    }
+
+    // Node-local offsets are named after the node and never read again once it stops
+    @PreDestroy
+    public void releaseNodeLocalOffsets() {
+        List<String> nodeLocal = subscriberNames(false);
+        if (nodeLocal.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxOffsetRepository.deleteBySubscribers(nodeLocal));
+        } catch (RuntimeException e) {
+            System.out.println("Could not release node-local outbox offsets, they expire after "
+                    + nodeLocalStaleAfter + ": " + e.getMessage());
+        }
+    }
+
+    private List<String> subscriberNames(boolean replaysHistory) {
+        return subscribers.stream()
+                .filter(subscriber -> subscriber.replaysHistory() == replaysHistory)
+                .map(OutboxSubscriber::name)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.Book.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.model.Booking;
+import com.example.Book.model.OutboxEvent;
+import com.example.Book.repo.OutboxEventRepository;
+
+// Records booking changes in the outbox as part of the caller's transaction. Everything that reacts
+// to a booking runs later in OutboxDispatcher, off the request path.
+@Service
+public class OutboxService {
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    // The row goes out with the booking's own insert batch. Call it before a cancellation clears
+    // the booking's slot key.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String eventType, Booking booking) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setBookingId(booking.getBookingId());
+        event.setProviderId(booking.getServices().getProvider().getProvider_id());
+        event.setServiceId(booking.getServices().getService_id());
+        event.setConsumerId(booking.getConsumer().getClient_id());
+        event.setBookingDateTime(booking.getBookingDateTime());
+        event.setPrice(booking.getPrice() != null ? booking.getPrice() : booking.getServices().getPrice());
+        event.setHoldsSlot(booking.holdsSlot());
+        event.setOriginNode(nodeId);
+        event.setCreatedAt(Instant.now());
+        outboxEventRepository.save(event);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.Book.service;
+
+import java.util.List;
+
+import com.example.Book.model.OutboxEvent;
+
+// Receives booking events from the outbox in log order, at least once. handle runs in the same
+// transaction that advances the subscriber's offset, so database work done there commits together
+// with the offset; throwing rolls both back and the batch is delivered again later.
+public interface OutboxSubscriber {
+
+    // Offset key; must be stable across restarts, or unique per node for node-local subscribers,
+    // whose offset is dropped when the node stops
+    String name();
+
+    void handle(List<OutboxEvent> events);
+
+    // Subscribers that only maintain state of the running node start at the end of the log
+    default boolean replaysHistory() {
+        return true;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.Book.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Book.dto.DailyStatsDTO;
+import com.example.Book.model.OutboxEvent;
+import com.example.Book.model.OutboxOffset;
+import com.example.Book.model.ProviderDailyStats;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.OutboxEventRepository;
+import com.example.Book.repo.OutboxOffsetRepository;
+import com.example.Book.repo.ProviderDailyStatsRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Booking counts and revenue per provider, service and day. The rollup follows the booking outbox,
+// so a dashboard reads at most one row per service and day whatever the size of the booking history.
+// A nightly job recomputes recent days from the booking table and repairs any drift.
+@Service
+public class ProviderStatsService implements OutboxSubscriber {
+
+    public enum Grouping {
+        NONE, DAY, SERVICE
+    }
+
+    // Days recomputed per transaction when reconciling
+    private static final int RECONCILE_CHUNK_DAYS = 31;
+
+    @Autowired
+    private ProviderDailyStatsRepository providerDailyStatsRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stats.reconcile.days-back:35}")
+    private int reconcileDaysBack;
+
+    @Value("${stats.reconcile.days-ahead:400}")
+    private int reconcileDaysAhead;
+
+    private TransactionTemplate snapshotTransaction;
+
+    @PostConstruct
+    void init() {
+        // The booking aggregate and the undelivered events have to come from the same snapshot
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public String name() {
+        return "provider-stats";
+    }
+
+    // from and to are inclusive; only rollup rows are read
+    public List<DailyStatsDTO> getStats(Long providerId, LocalDate from, LocalDate to, Grouping grouping) {
+        switch (grouping) {
+            case DAY:
+                return providerDailyStatsRepository.sumByDay(providerId, from, to);
+            case SERVICE:
+                return providerDailyStatsRepository.sumByService(providerId, from, to);
+            default:
+                return providerDailyStatsRepository.findRows(providerId, from, to);
+        }
+    }
+
+    // Changes are summed per row first, so a batch touches each row once
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Map<ProviderDailyStats.Key, ProviderDailyStats> changes = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            apply(changes, event, 1);
+        }
+        for (ProviderDailyStats change : changes.values()) {
+            ProviderDailyStats stats = providerDailyStatsRepository.findById(change.getId()).orElse(null);
+            if (stats == null) {
+                providerDailyStatsRepository.save(change);
+            } else {
+                stats.setBookingCount(stats.getBookingCount() + change.getBookingCount());
+                stats.setCancelledCount(stats.getCancelledCount() + change.getCancelledCount());
+                stats.setRevenue(stats.getRevenue().add(change.getRevenue()));
+            }
+        }
+    }
+
+    @Scheduled(cron = "${stats.reconcile.cron:0 30 3 * * *}")
+    public void reconcileRecent() {
+        LocalDate today = LocalDate.now();
+        int repaired = reconcile(today.minusDays(reconcileDaysBack), today.plusDays(reconcileDaysAhead));
+        System.out.println("Reconciled provider statistics, " + repaired + " rows repaired");
+    }
+
+    // Fills an empty rollup from the whole booking history, e.g. on first deployment
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (providerDailyStatsRepository.count() > 0) {
+            return;
+        }
+        LocalDateTime first = bookingRepository.findFirstBookingDateTime();
+        LocalDateTime last = bookingRepository.findLastBookingDateTime();
+        if (first != null && last != null) {
+            int written = reconcile(first.toLocalDate(), last.toLocalDate());
+            System.out.println("Backfilled " + written + " provider statistics rows");
+        }
+    }
+
+    // Rewrites the rows of [from, to] that differ from the booking table; returns how many changed
+    public int reconcile(LocalDate from, LocalDate to) {
+        int repaired = 0;
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(RECONCILE_CHUNK_DAYS)) {
+            LocalDate end = start.plusDays(RECONCILE_CHUNK_DAYS - 1);
+            LocalDate chunkEnd = end.isAfter(to) ? to : end;
+            LocalDate chunkStart = start;
+            Integer changed = snapshotTransaction.execute(status -> reconcileChunk(chunkStart, chunkEnd));
+            repaired += changed == null ? 0 : changed;
+        }
+        return repaired;
+    }
+
+    // Holds the subscriber's offset lock, so no batch is delivered meanwhile. Bookings whose events
+    // are not delivered yet are taken back out of the expected totals; delivery adds them later.
+    private int reconcileChunk(LocalDate from, LocalDate to) {
+        OutboxOffset offset = outboxOffsetRepository.lockBySubscriber(name())
+                .orElseGet(() -> outboxOffsetRepository.saveAndFlush(new OutboxOffset(name(), 0L)));
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        Map<ProviderDailyStats.Key, ProviderDailyStats> expected = new HashMap<>();
+        for (DailyStatsDTO row : bookingRepository.aggregateDailyStats(start, end)) {
+            ProviderDailyStats.Key key = new ProviderDailyStats.Key(row.getProviderId(), row.getServiceId(), row.getDay());
+            expected.put(key, new ProviderDailyStats(key, row.getBookingCount(), row.getCancelledCount(), money(row.getRevenue())));
+        }
+        for (OutboxEvent event : outboxEventRepository.findUndelivered(offset.getPosition(), start, end)) {
+            apply(expected, event, -1);
+        }
+
+        int changed = 0;
+        for (ProviderDailyStats stats : providerDailyStatsRepository.findByDayRange(from, to)) {
+            ProviderDailyStats target = expected.remove(stats.getId());
+            if (target == null || isEmpty(target)) {
+                providerDailyStatsRepository.delete(stats);
+                changed++;
+            } else if (!stats.getBookingCount().equals(target.getBookingCount())
+                    || !stats.getCancelledCount().equals(target.getCancelledCount())
+                    || stats.getRevenue().compareTo(target.getRevenue()) != 0) {
+                stats.setBookingCount(target.getBookingCount());
+                stats.setCancelledCount(target.getCancelledCount());
+                stats.setRevenue(target.getRevenue());
+                changed++;
+            }
+        }
+        for (ProviderDailyStats missing : expected.values()) {
+            if (!isEmpty(missing)) {
+                providerDailyStatsRepository.save(missing);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    // Adds (sign 1) or takes back (sign -1) what one event does to its row
+    private static void apply(Map<ProviderDailyStats.Key, ProviderDailyStats> rows, OutboxEvent event, int sign) {
+        boolean created = OutboxEvent.BOOKING_CREATED.equals(event.getEventType());
+        boolean cancelled = OutboxEvent.BOOKING_CANCELLED.equals(event.getEventType());
+        if (!created && !cancelled || event.getBookingDateTime() == null) {
+            return;
+        }
+        ProviderDailyStats.Key key = new ProviderDailyStats.Key(event.getProviderId(), event.getServiceId(),
+                event.getBookingDateTime().toLocalDate());
+        ProviderDailyStats stats = rows.computeIfAbsent(key,
+                id -> new ProviderDailyStats(id, 0L, 0L, money(BigDecimal.ZERO)));
+        int active = created ? sign : -sign;
+        BigDecimal price = event.getPrice() == null ? BigDecimal.ZERO : BigDecimal.valueOf(event.getPrice());
+        stats.setBookingCount(stats.getBookingCount() + active);
+        stats.setRevenue(stats.getRevenue().add(money(price).multiply(BigDecimal.valueOf(active))));
+        if (cancelled) {
+            stats.setCancelledCount(stats.getCancelledCount() + sign);
+        }
+    }
+
+    private static boolean isEmpty(ProviderDailyStats stats) {
+        return stats.getBookingCount() == 0 && stats.getCancelledCount() == 0 && stats.getRevenue().signum() == 0;
+    }
+
+    // Same scale as the revenue column, so reconciled values compare equal to stored ones
+    private static BigDecimal money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.Book.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Book.dto.CalendarEntryDTO;
+import com.example.Book.dto.RecurrenceExceptionDTO;
+import com.example.Book.dto.RecurringAppointmentDTO;
+import com.example.Book.dto.RecurringSeriesDTO;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.Booking;
+import com.example.Book.model.RecurrenceException;
+import com.example.Book.model.RecurringAppointment;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.RecurrenceExceptionRepository;
+import com.example.Book.repo.RecurringAppointmentRepository;
+import com.example.Book.util.RecurrenceRule;
+
+// Recurring appointments repeat an existing booking without creating rows for its occurrences.
+// Calendars expand every series lazily over the requested window and merge the occurrences with the
+// real bookings in time order; only cancelled or moved occurrences are stored.
+@Service
+public class RecurrenceService {
+
+    // How far ahead a new series is checked against existing bookings
+    private static final Duration CONFLICT_HORIZON = Duration.ofDays(90);
+
+    @Autowired
+    private RecurringAppointmentRepository recurringAppointmentRepository;
+
+    @Autowired
+    private RecurrenceExceptionRepository recurrenceExceptionRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public RecurringAppointment createSeries(RecurringAppointmentDTO requestDTO) {
+        return transactionTemplate.execute(status -> {
+            Booking booking = bookingRepository.findById(requestDTO.getBookingId())
+                    .orElseThrow(() -> new RuntimeException("Booking not found with id: " + requestDTO.getBookingId()));
+            if (!Boolean.TRUE.equals(booking.getStatus())) {
+                throw new RuntimeException("Booking " + booking.getBookingId() + " is not active");
+            }
+            RecurrenceRule rule = RecurrenceRule.of(requestDTO.getRecurrenceType(), booking.getBookingDateTime(), requestDTO.getEndDateTime());
+            Long providerId = booking.getServices().getProvider().getProvider_id();
+            Integer serviceId = booking.getServices().getService_id();
+            LocalDateTime now = LocalDateTime.now();
+            rule.repeats(now, now.plus(CONFLICT_HORIZON))
+                    .filter(occurrence -> !availabilityService.isFree(providerId, serviceId, occurrence))
+                    .findFirst()
+                    .ifPresent(occurrence -> {
+                        throw new BookingConflictException("The provider is already booked at " + occurrence);
+                    });
+
+            RecurringAppointment series = new RecurringAppointment();
+            series.setBooking(booking);
+            series.setStartDateTime(booking.getBookingDateTime());
+            series.setEndDateTime(requestDTO.getEndDateTime());
+            series.setRecurrenceType(requestDTO.getRecurrenceType().toUpperCase(Locale.ROOT));
+            RecurringAppointment saved = recurringAppointmentRepository.save(series);
+            invalidateOnCommit(providerId);
+            return saved;
+        });
+    }
+
+    // Cancels one occurrence, or moves it when a rescheduled time is given
+    public RecurrenceException addException(RecurrenceExceptionDTO requestDTO) {
+        return transactionTemplate.execute(status -> {
+            RecurringAppointment series = recurringAppointmentRepository.findById(requestDTO.getRecurrenceId())
+                    .orElseThrow(() -> new RuntimeException("Recurring appointment not found with id: " + requestDTO.getRecurrenceId()));
+            RecurrenceRule rule = RecurrenceRule.of(series.getRecurrenceType(), series.getStartDateTime(), series.getEndDateTime());
+            if (requestDTO.getOriginalDateTime() == null || !rule.isRepeat(requestDTO.getOriginalDateTime())) {
+                throw new RuntimeException(requestDTO.getOriginalDateTime() + " is not an occurrence of recurring appointment " + series.getRecurrenceId());
+            }
+            Long providerId = series.getBooking().getServices().getProvider().getProvider_id();
+            LocalDateTime moved = requestDTO.getRescheduledDateTime();
+            if (moved != null && !availabilityService.isFree(providerId, series.getBooking().getServices().getService_id(), moved)) {
+                throw new BookingConflictException("The provider is already booked at " + moved);
+            }
+
+            RecurrenceException exception = recurrenceExceptionRepository
+                    .findOccurrence(series.getRecurrenceId(), requestDTO.getOriginalDateTime())
+                    .orElseGet(RecurrenceException::new);
+            exception.setRecurringAppointment(series);
+            exception.setOriginalDateTime(requestDTO.getOriginalDateTime());
+            exception.setRescheduledDateTime(moved);
+            RecurrenceException saved = recurrenceExceptionRepository.save(exception);
+            invalidateOnCommit(providerId);
+            return saved;
+        });
+    }
+
+    // The provider's appointments starting in [from, to), in time order. Memory is bounded by the
+    // number of series and the bookings in the window, not by how long any series runs.
+    public Stream<CalendarEntryDTO> calendar(Long providerId, LocalDateTime from, LocalDateTime to) {
+        List<Iterator<CalendarEntryDTO>> sources = new ArrayList<>();
+        sources.add(bookingRepository.findCalendarEntries(providerId, from, to).iterator());
+
+        Map<Integer, RecurringSeriesDTO> series = new HashMap<>();
+        for (RecurringSeriesDTO dto : recurringAppointmentRepository.findActiveSeriesByProviderId(providerId, from)) {
+            if (dto.getStartDateTime().isBefore(to)) {
+                series.put(dto.getRecurrenceId(), dto);
+            }
+        }
+        Map<Integer, Set<LocalDateTime>> skipped = new HashMap<>();
+        List<CalendarEntryDTO> moved = new ArrayList<>();
+        if (!series.isEmpty()) {
+            for (RecurrenceExceptionDTO exception : recurrenceExceptionRepository.findBySeries(series.keySet(), from)) {
+                skipped.computeIfAbsent(exception.getRecurrenceId(), id -> new HashSet<>()).add(exception.getOriginalDateTime());
+                LocalDateTime start = exception.getRescheduledDateTime();
+                if (start != null && !start.isBefore(from) && start.isBefore(to)) {
+                    moved.add(occurrence(series.get(exception.getRecurrenceId()), start));
+                }
+            }
+        }
+        moved.sort(Comparator.comparing(CalendarEntryDTO::getStart));
+        sources.add(moved.iterator());
+
+        for (RecurringSeriesDTO dto : series.values()) {
+            Set<LocalDateTime> cancelled = skipped.getOrDefault(dto.getRecurrenceId(), Set.of());
+            sources.add(RecurrenceRule.of(dto.getRecurrenceType(), dto.getStartDateTime(), dto.getEndDateTime())
+                    .repeats(from, to)
+                    .filter(start -> !cancelled.contains(start))
+                    .map(start -> occurrence(dto, start))
+                    .iterator());
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(mergeByStart(sources),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static CalendarEntryDTO occurrence(RecurringSeriesDTO series, LocalDateTime start) {
+        return new CalendarEntryDTO(start, series.getServiceId(), series.getConsumerId(), series.getBookingId(),
+                series.getRecurrenceId());
+    }
+
+    // k-way merge of iterators that are each sorted by start
+    private static Iterator<CalendarEntryDTO> mergeByStart(List<Iterator<CalendarEntryDTO>> sources) {
+        record Head(CalendarEntryDTO entry, Iterator<CalendarEntryDTO> rest) {
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing((Head head) -> head.entry().getStart()));
+        for (Iterator<CalendarEntryDTO> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public CalendarEntryDTO next() {
+                Head head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.rest().hasNext()) {
+                    heads.add(new Head(head.rest().next(), head.rest()));
+                }
+                return head.entry();
+            }
+        };
+    }
+
+    private void invalidateOnCommit(Long providerId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                availabilityService.invalidate(providerId);
+            }
+        });
+    }
+}
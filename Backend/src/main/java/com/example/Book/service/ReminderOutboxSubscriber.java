@@ -0,0 +1,72 @@
+package com.example.Book.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.Book.model.OutboxEvent;
+import com.example.Book.model.Reminder;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ReminderRepository;
+
+// Schedules a PENDING reminder ahead of every new booking and cancels it with the booking
+@Component
+public class ReminderOutboxSubscriber implements OutboxSubscriber {
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${reminder.lead-time:1h}")
+    private Duration leadTime;
+
+    @Override
+    public String name() {
+        return "reminders";
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Set<Long> cancelled = new HashSet<>();
+        for (OutboxEvent event : events) {
+            if (OutboxEvent.BOOKING_CANCELLED.equals(event.getEventType())) {
+                cancelled.add(event.getBookingId());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Reminder> reminders = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (!OutboxEvent.BOOKING_CREATED.equals(event.getEventType()) || event.getBookingDateTime() == null
+                    || !event.getBookingDateTime().isAfter(now) || cancelled.contains(event.getBookingId())) {
+                continue;
+            }
+            LocalDateTime remindAt = event.getBookingDateTime().minus(leadTime);
+            Reminder reminder = new Reminder();
+            reminder.setBooking(bookingRepository.getReferenceById(event.getBookingId()));
+            reminder.setDescription("Upcoming booking at " + event.getBookingDateTime());
+            reminder.setReminderDateTime(remindAt.isAfter(now) ? remindAt : now);
+            reminder.setStatus("PENDING");
+            reminders.add(reminder);
+        }
+        for (Reminder reminder : reminderRepository.saveAll(reminders)) {
+            eventPublisher.publishEvent(ReminderScheduler.ReminderChanged.saved(reminder));
+        }
+        if (!cancelled.isEmpty()) {
+            reminderRepository.cancelPending(cancelled);
+            eventPublisher.publishEvent(new ReminderScheduler.BookingRemindersCancelled(cancelled));
+        }
+    }
+}
@@ -1,34 +1,200 @@
 package com.example.Book.service;
 
+import com.example.Book.dto.PendingReminderDTO;
 import com.example.Book.model.Reminder;
 import com.example.Book.repo.ReminderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
+// Sends PENDING reminders at their due time from an in-memory delay queue. Reminders due within the
+// horizon are loaded by a coarse sweep on startup and every sweep interval, and kept up to date by
+// the events ReminderService and ReminderOutboxSubscriber publish. Between reminders the database
+// is only read by that sweep.
 @Service
 public class ReminderScheduler {
 
+    // Published when a reminder was saved or deleted; applied once the change has committed
+    public record ReminderChanged(Integer reminderId, Long bookingId, LocalDateTime dueAt, boolean pending) {
+
+        public static ReminderChanged saved(Reminder reminder) {
+            return new ReminderChanged(reminder.getReminderId(),
+                    reminder.getBooking() == null ? null : reminder.getBooking().getBookingId(),
+                    reminder.getReminderDateTime(), "PENDING".equals(reminder.getStatus()));
+        }
+
+        public static ReminderChanged deleted(Integer reminderId) {
+            return new ReminderChanged(reminderId, null, null, false);
+        }
+    }
+
+    // Published when the pending reminders of cancelled bookings were cancelled in bulk
+    public record BookingRemindersCancelled(Collection<Long> bookingIds) {
+    }
+
+    private record Due(Integer reminderId, Long bookingId, long atMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(atMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(atMillis, ((Due) other).atMillis);
+        }
+    }
+
     private final ReminderRepository reminderRepository;
     private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final Duration maxDelay;
+
+    private final DelayQueue<Due> queue = new DelayQueue<>();
+    // Current entry per reminder; entries taken from the queue that are no longer here are skipped
+    private final Map<Integer, Due> scheduled = new ConcurrentHashMap<>();
+    private final Thread worker;
 
-    public ReminderScheduler(ReminderRepository reminderRepository, NotificationService notificationService) {
+    public ReminderScheduler(ReminderRepository reminderRepository, NotificationService notificationService,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${reminder.horizon:1h}") Duration horizon,
+                             @Value("${reminder.max-delay:1h}") Duration maxDelay) {
         this.reminderRepository = reminderRepository;
         this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.horizon = horizon;
+        this.maxDelay = maxDelay;
+        this.worker = new Thread(this::run, "reminder-scheduler");
+        this.worker.setDaemon(true);
     }
 
-    @Scheduled(fixedRate = 60000) // Runs every 60 seconds
-    public void checkAndSendReminders() {
+    @PostConstruct
+    public void start() {
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.interrupt();
+    }
+
+    // Also picks up reminders missed while no node was running, up to max-delay late
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int loaded = sweep();
+        if (loaded > 0) {
+            System.out.println("Scheduled " + loaded + " pending reminders");
+        }
+    }
+
+    // Recovery only: catches reminders that came into the horizon, were saved on another node, or
+    // failed to send
+    @Scheduled(fixedDelayString = "${reminder.sweep-interval-ms:900000}", initialDelayString = "${reminder.sweep-interval-ms:900000}")
+    public int sweep() {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime futureTime = now.plusMinutes(15); // Check for reminders due in the next 15 minutes
+        int loaded = 0;
+        for (PendingReminderDTO reminder : reminderRepository.findPendingDue(now.minus(maxDelay), now.plus(horizon))) {
+            if (schedule(reminder.getReminderId(), reminder.getBookingId(), reminder.getReminderDateTime())) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
 
-        List<Reminder> reminders = reminderRepository.findByReminderDateTimeBetweenAndStatus(now, futureTime, "PENDING");
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderChanged(ReminderChanged event) {
+        LocalDateTime now = LocalDateTime.now();
+        if (event.pending() && event.dueAt() != null && !event.dueAt().isAfter(now.plus(horizon))
+                && !event.dueAt().isBefore(now.minus(maxDelay))) {
+            schedule(event.reminderId(), event.bookingId(), event.dueAt());
+        } else {
+            unschedule(event.reminderId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingRemindersCancelled(BookingRemindersCancelled event) {
+        for (Due due : scheduled.values()) {
+            if (event.bookingIds().contains(due.bookingId()) && scheduled.remove(due.reminderId(), due)) {
+                queue.remove(due);
+            }
+        }
+    }
+
+    public int scheduledCount() {
+        return scheduled.size();
+    }
+
+    // Returns false when the reminder was already scheduled for that time
+    private synchronized boolean schedule(Integer reminderId, Long bookingId, LocalDateTime dueAt) {
+        Instant instant = dueAt.atZone(ZoneId.systemDefault()).toInstant();
+        // Rounded up, so the claim below never sees the reminder as not yet due
+        long atMillis = instant.toEpochMilli() + (instant.getNano() % 1_000_000 == 0 ? 0 : 1);
+        Due due = new Due(reminderId, bookingId, atMillis);
+        Due previous = scheduled.put(reminderId, due);
+        if (due.equals(previous)) {
+            return false;
+        }
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(due);
+        return true;
+    }
+
+    private synchronized void unschedule(Integer reminderId) {
+        Due previous = scheduled.remove(reminderId);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Due due;
+            try {
+                due = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (scheduled.remove(due.reminderId(), due)) {
+                send(due.reminderId());
+            }
+        }
+    }
 
-        for (Reminder reminder : reminders) {
-            notificationService.sendNotification(reminder);
-            reminder.setStatus("SENT");
-            reminderRepository.save(reminder);
+    // The conditional update sends each reminder once, however many nodes have it queued
+    private void send(Integer reminderId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (reminderRepository.markSent(reminderId, LocalDateTime.now()) == 0) {
+                    return;
+                }
+                Reminder reminder = reminderRepository.findById(reminderId)
+                        .orElseThrow(() -> new RuntimeException("Reminder not found with id: " + reminderId));
+                notificationService.sendNotification(reminder);
+            });
+        } catch (RuntimeException e) {
+            // Rolled back to PENDING, so the next sweep retries it
+            System.out.println("Could not send reminder " + reminderId + ": " + e.getMessage());
         }
     }
 }
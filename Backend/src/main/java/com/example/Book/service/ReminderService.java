@@ -3,6 +3,7 @@ package com.example.Book.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.example.Book.model.Reminder;
@@ -14,12 +15,17 @@ public class ReminderService {
     @Autowired
     private ReminderRepository reminderRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private final String TWILIO_ACCOUNT_SID = "your_account_sid";
     private final String TWILIO_AUTH_TOKEN = "your_auth_token";
     private final String TWILIO_PHONE_NUMBER = "your_twilio_phone_number";
 
     public Reminder createReminder(Reminder reminder) {
-        return reminderRepository.save(reminder);
+        Reminder saved = reminderRepository.save(reminder);
+        eventPublisher.publishEvent(ReminderScheduler.ReminderChanged.saved(saved));
+        return saved;
     }
 
     public List<Reminder> getAllReminders() {
@@ -36,11 +42,14 @@ public class ReminderService {
         reminder.setDescription(reminderDetails.getDescription());
         reminder.setReminderDateTime(reminderDetails.getReminderDateTime());
         reminder.setStatus(reminderDetails.getStatus());
-        return reminderRepository.save(reminder);
+        Reminder saved = reminderRepository.save(reminder);
+        eventPublisher.publishEvent(ReminderScheduler.ReminderChanged.saved(saved));
+        return saved;
     }
 
     public void deleteReminder(Integer id) {
         Reminder reminder = getReminderById(id);
         reminderRepository.delete(reminder);
+        eventPublisher.publishEvent(ReminderScheduler.ReminderChanged.deleted(id));
     }
 } 
\ No newline at end of file
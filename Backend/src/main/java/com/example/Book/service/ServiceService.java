@@ -3,11 +3,11 @@ package com.example.Book.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.example.Book.model.ServiceProvider;
 import com.example.Book.model.Services;
-import com.example.Book.repo.ServiceProviderRepository;
 import com.example.Book.repo.ServiceRepository;
 
 @Service
@@ -17,16 +17,19 @@ public class ServiceService {
     private ServiceRepository serviceRepository;
 
     @Autowired
-    private ServiceProviderRepository serviceProviderRepository;
+    private IdentityService identityService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public List<Services> getServicesByProviderEmail(String email) {
-        ServiceProvider provider = serviceProviderRepository.findByEmail(email)
+        ServiceProvider provider = identityService.findServiceProvider(email)
                 .orElseThrow(() -> new RuntimeException("Service Provider not found with email: " + email));
         return serviceRepository.findByProvider(provider);
     }
 
     public Services updateService(String email, Services service) {
-        ServiceProvider provider = serviceProviderRepository.findByEmail(email)
+        ServiceProvider provider = identityService.findServiceProvider(email)
                 .orElseThrow(() -> new RuntimeException("Service Provider not found with email: " + email));
         
         // If service has an ID, update existing service
@@ -46,11 +49,15 @@ public class ServiceService {
             existingService.setDescription(service.getDescription());
             existingService.setCategory(service.getCategory());
 
-            return serviceRepository.save(existingService);
+            Services saved = serviceRepository.save(existingService);
+            eventPublisher.publishEvent(new CatalogService.ProviderChanged(provider.getProvider_id()));
+            return saved;
         } else {
             // Create new service
             service.setProvider(provider);
-            return serviceRepository.save(service);
+            Services saved = serviceRepository.save(service);
+            eventPublisher.publishEvent(new CatalogService.ProviderChanged(provider.getProvider_id()));
+            return saved;
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,276 @@
+package com.example.Book.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// HMAC signing keys persisted in a PKCS12 keystore so tokens survive restarts and every node
+// sharing the file can verify every other node's tokens. Each key's alias is its kid and encodes
+// its creation time; the newest key signs, older keys only verify until the overlap window after
+// their successor was created has passed.
+@Service
+public class SigningKeyRing {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String KID_PREFIX = "jwt-";
+    private static final long DISK_CHECK_INTERVAL_MS = 5000;
+    // Kids can come from unauthenticated clients, so even a plausibly new one checks the disk at most this often
+    private static final long NEW_KID_CHECK_INTERVAL_MS = 1000;
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(1);
+
+    public record ActiveKey(String kid, SecretKey key) {
+    }
+
+    // Immutable view of the keystore; replaced wholesale on rotation or reload
+    private record Ring(Map<String, SecretKey> keys, ActiveKey active, Instant activeSince, FileTime modified) {
+    }
+
+    private final Path path;
+    private final char[] password;
+    private final Duration rotationPeriod;
+    private final Duration overlap;
+
+    private volatile Ring ring;
+    private volatile long lastDiskCheck;
+    // Kids that were not in the ring they were looked up in; a miss only counts while that ring is current
+    private final Cache<String, Ring> unknownKids = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMillis(NEW_KID_CHECK_INTERVAL_MS))
+            .build();
+
+    public SigningKeyRing(@Value("${jwt.keystore.path:keys/jwt-keystore.p12}") String path,
+                          @Value("${jwt.keystore.password:change-me}") String password,
+                          @Value("${jwt.keys.rotation-period:30d}") Duration rotationPeriod,
+                          @Value("${jwt.keys.overlap:10h}") Duration overlap) {
+        this.path = Paths.get(path);
+        this.password = password.toCharArray();
+        this.rotationPeriod = rotationPeriod;
+        this.overlap = overlap;
+        ring = withFileLock(() -> {
+            KeyStore keyStore = readKeyStore();
+            if (aliases(keyStore).isEmpty()) {
+                addKey(keyStore);
+                writeKeyStore(keyStore);
+            }
+            return toRing(keyStore);
+        });
+    }
+
+    public ActiveKey activeKey() {
+        refreshIfModified(false);
+        if (isStale(ring)) {
+            rotateIfStale();
+        }
+        return ring.active();
+    }
+
+    // Returns null for unknown kids, after looking at the keystore for keys another node added. A kid
+    // newer than our active key is checked sooner than others, but never more than once a second.
+    public SecretKey verificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        Ring current = ring;
+        SecretKey key = current.keys().get(kid);
+        if (key != null || unknownKids.getIfPresent(kid) == current) {
+            return key;
+        }
+        if (refreshIfModified(isPlausiblyNew(kid, current))) {
+            current = ring;
+            key = current.keys().get(kid);
+        }
+        if (key == null) {
+            unknownKids.put(kid, current);
+        }
+        return key;
+    }
+
+    // Created after our active key, and not in the future beyond clock skew between nodes
+    private static boolean isPlausiblyNew(String kid, Ring current) {
+        try {
+            Instant created = createdAt(kid);
+            return kid.startsWith(KID_PREFIX) && created.isAfter(current.activeSince())
+                    && created.isBefore(Instant.now().plus(MAX_CLOCK_SKEW));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    // Adds a new signing key; the previous one keeps verifying for the overlap window
+    public synchronized void rotate() {
+        ring = withFileLock(() -> {
+            KeyStore keyStore = readKeyStore();
+            addKey(keyStore);
+            prune(keyStore);
+            writeKeyStore(keyStore);
+            return toRing(keyStore);
+        });
+        System.out.println("Rotated JWT signing key, active kid: " + ring.active().kid());
+    }
+
+    private synchronized void rotateIfStale() {
+        ring = withFileLock(() -> {
+            KeyStore keyStore = readKeyStore();
+            Ring onDisk = toRing(keyStore);
+            // Another node may have rotated already
+            if (!isStale(onDisk)) {
+                return onDisk;
+            }
+            addKey(keyStore);
+            prune(keyStore);
+            writeKeyStore(keyStore);
+            return toRing(keyStore);
+        });
+        System.out.println("JWT signing key active kid: " + ring.active().kid());
+    }
+
+    private boolean isStale(Ring candidate) {
+        return candidate.activeSince().plus(rotationPeriod).isBefore(Instant.now());
+    }
+
+    // The interval is checked before taking the lock, so callers inside it never wait on one another
+    private boolean refreshIfModified(boolean newKid) {
+        long interval = newKid ? NEW_KID_CHECK_INTERVAL_MS : DISK_CHECK_INTERVAL_MS;
+        if (System.currentTimeMillis() - lastDiskCheck < interval) {
+            return false;
+        }
+        return reloadIfModified(interval);
+    }
+
+    private synchronized boolean reloadIfModified(long interval) {
+        long now = System.currentTimeMillis();
+        if (now - lastDiskCheck < interval) {
+            return false;
+        }
+        lastDiskCheck = now;
+        try {
+            if (!Files.exists(path) || Files.getLastModifiedTime(path).equals(ring.modified())) {
+                return false;
+            }
+            ring = toRing(readKeyStore());
+            return true;
+        } catch (IOException | GeneralSecurityException e) {
+            System.out.println("Failed to reload JWT keystore: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void addKey(KeyStore keyStore) throws GeneralSecurityException {
+        SecretKey key = KeyGenerator.getInstance(ALGORITHM).generateKey();
+        long createdAt = System.currentTimeMillis();
+        // Keep kids unique even if two keys are generated within the same millisecond
+        while (keyStore.containsAlias(KID_PREFIX + createdAt)) {
+            createdAt++;
+        }
+        keyStore.setEntry(KID_PREFIX + createdAt, new KeyStore.SecretKeyEntry(key),
+                new KeyStore.PasswordProtection(password));
+    }
+
+    // Drops keys whose successor has been signing for longer than the overlap window
+    private void prune(KeyStore keyStore) throws GeneralSecurityException {
+        List<String> aliases = aliases(keyStore);
+        Instant now = Instant.now();
+        for (int i = 0; i < aliases.size() - 1; i++) {
+            Instant successorCreated = createdAt(aliases.get(i + 1));
+            if (successorCreated.plus(overlap).isBefore(now)) {
+                keyStore.deleteEntry(aliases.get(i));
+            }
+        }
+    }
+
+    private Ring toRing(KeyStore keyStore) throws GeneralSecurityException, IOException {
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        for (String alias : aliases(keyStore)) {
+            keys.put(alias, (SecretKey) keyStore.getKey(alias, password));
+        }
+        List<String> ordered = new ArrayList<>(keys.keySet());
+        String activeKid = ordered.get(ordered.size() - 1);
+        return new Ring(Collections.unmodifiableMap(keys), new ActiveKey(activeKid, keys.get(activeKid)),
+                createdAt(activeKid), Files.getLastModifiedTime(path));
+    }
+
+    // Oldest first
+    private static List<String> aliases(KeyStore keyStore) throws GeneralSecurityException {
+        List<String> aliases = new ArrayList<>();
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (alias.startsWith(KID_PREFIX) && keyStore.isKeyEntry(alias)) {
+                aliases.add(alias);
+            }
+        }
+        aliases.sort(Comparator.comparing(SigningKeyRing::createdAt));
+        return aliases;
+    }
+
+    private static Instant createdAt(String alias) {
+        return Instant.ofEpochMilli(Long.parseLong(alias.substring(KID_PREFIX.length())));
+    }
+
+    private KeyStore readKeyStore() throws GeneralSecurityException, IOException {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        if (Files.exists(path) && Files.size(path) > 0) {
+            try (InputStream in = Files.newInputStream(path)) {
+                keyStore.load(in, password);
+            }
+        } else {
+            keyStore.load(null, password);
+        }
+        return keyStore;
+    }
+
+    // Written to a temp file and moved into place so other nodes never read a partial keystore
+    private void writeKeyStore(KeyStore keyStore) throws GeneralSecurityException, IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            keyStore.store(out, password);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private interface KeyStoreAction {
+        Ring apply() throws GeneralSecurityException, IOException;
+    }
+
+    // Serializes keystore updates across processes sharing the file
+    private Ring withFileLock(KeyStoreAction action) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path lockFile = path.resolveSibling(path.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                return action.apply();
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not access JWT keystore " + path + ": " + e.getMessage(), e);
+        }
+    }
+}
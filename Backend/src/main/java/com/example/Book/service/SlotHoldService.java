@@ -0,0 +1,239 @@
+package com.example.Book.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Book.dto.SlotHoldDTO;
+import com.example.Book.exception.BookingAccessException;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.AuthenticatedUser;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Services;
+import com.example.Book.model.SlotHold;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.ServiceRepository;
+import com.example.Book.repo.SlotHoldRepository;
+import com.example.Book.util.TimingWheel;
+
+// Checkout holds. A hold blocks its slot in AvailabilityService like a booking until it is booked,
+// released or expires. Expiry runs on an in-memory timing wheel, so the database is only touched
+// when a hold actually runs out, at O(1) cost per hold however many are pending. The slot_hold rows
+// let other nodes see holds and bring them back after a restart; a coarse sweep removes rows left
+// behind by a node that went away.
+@Service
+public class SlotHoldService {
+
+    private record Expiry(Long holdId, Long providerId, Integer serviceId, LocalDateTime startTime) {
+    }
+
+    @Autowired
+    private SlotHoldRepository slotHoldRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Duration ttl;
+    private final TimingWheel<Expiry> wheel;
+    // Guarded by wheel
+    private final Map<Long, TimingWheel.Timeout<Expiry>> timeouts = new HashMap<>();
+
+    public SlotHoldService(@Value("${slot-hold.ttl:5m}") Duration ttl,
+                           @Value("${slot-hold.tick-ms:1000}") long tickMillis,
+                           @Value("${slot-hold.wheel-size:512}") int wheelSize) {
+        this.ttl = ttl;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    public SlotHold hold(SlotHoldDTO requestDTO) {
+        if (requestDTO.getConsumerId() == null || requestDTO.getServiceId() == null || requestDTO.getStartTime() == null) {
+            throw new RuntimeException("A hold needs a consumer, a service and a start time");
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                Services service = serviceRepository.findById(requestDTO.getServiceId())
+                        .orElseThrow(() -> new RuntimeException("Service not found with id: " + requestDTO.getServiceId()));
+                if (!consumerRepository.existsById(Long.valueOf(requestDTO.getConsumerId()))) {
+                    throw new RuntimeException("Consumer not found with id: " + requestDTO.getConsumerId());
+                }
+                Long providerId = service.getProvider().getProvider_id();
+                LocalDateTime start = requestDTO.getStartTime();
+                Instant now = Instant.now();
+                String slotKey = Booking.slotKey(providerId, start);
+                slotHoldRepository.deleteExpiredBySlotKey(slotKey, now);
+
+                long reservation = availabilityService.reserve(providerId, service.getService_id(), start);
+                SlotHold hold;
+                try {
+                    hold = slotHoldRepository.saveAndFlush(new SlotHold(null, providerId, service.getService_id(),
+                            Long.valueOf(requestDTO.getConsumerId()), start, slotKey, now.plus(ttl), now));
+                } catch (RuntimeException e) {
+                    availabilityService.release(providerId, reservation);
+                    throw e;
+                }
+                availabilityService.holdOnCommit(providerId, service.getService_id(), start, reservation, hold.getHoldId());
+                afterCommit(() -> schedule(hold));
+                publishSlotChanged(providerId, service.getService_id(), start, true);
+                return hold;
+            });
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.toLowerCase().contains("ux_slot_hold_slot_key")) {
+                throw new BookingConflictException("The slot at " + requestDTO.getStartTime() + " is already held");
+            }
+            throw e;
+        }
+    }
+
+    public SlotHold getHold(Long holdId) {
+        return slotHoldRepository.findById(holdId)
+                .orElseThrow(() -> new RuntimeException("Hold not found with id: " + holdId));
+    }
+
+    // The hold as seen by the consumer confirming it; nobody else may book or release it
+    public SlotHold getHold(Long holdId, AuthenticatedUser caller) {
+        if (caller == null) {
+            throw new BookingAccessException(HttpStatus.UNAUTHORIZED, "Sign in to manage bookings");
+        }
+        SlotHold hold = getHold(holdId);
+        if (!caller.isConsumer() || !caller.getId().equals(hold.getConsumerId())) {
+            throw new BookingAccessException(HttpStatus.FORBIDDEN, "Hold " + holdId + " belongs to another consumer");
+        }
+        return hold;
+    }
+
+    // Called by BookingService in the booking's transaction. Deleting the row is what claims the hold,
+    // so it is booked at most once and never after it expired.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public SlotHold claim(Long holdId, Integer consumerId, Integer serviceId, LocalDateTime start) {
+        SlotHold hold = slotHoldRepository.findById(holdId)
+                .orElseThrow(() -> new BookingConflictException("Hold " + holdId + " has expired or was already used"));
+        if (!hold.getConsumerId().equals(Long.valueOf(consumerId)) || !hold.getServiceId().equals(serviceId)
+                || !hold.getStartTime().equals(start)) {
+            throw new RuntimeException("Hold " + holdId + " is for a different consumer, service or time");
+        }
+        if (slotHoldRepository.deleteActive(holdId, Instant.now()) == 0) {
+            throw new BookingConflictException("Hold " + holdId + " has expired or was already used");
+        }
+        afterCommit(() -> forget(hold.getHoldId(), hold.getProviderId()));
+        return hold;
+    }
+
+    public void release(Long holdId, AuthenticatedUser caller) {
+        transactionTemplate.executeWithoutResult(status -> {
+            SlotHold hold = getHold(holdId, caller);
+            slotHoldRepository.delete(hold);
+            afterCommit(() -> forget(hold.getHoldId(), hold.getProviderId()));
+            publishSlotChanged(hold.getProviderId(), hold.getServiceId(), hold.getStartTime(), false);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${slot-hold.tick-ms:1000}")
+    public void expireDue() {
+        List<Expiry> expired;
+        synchronized (wheel) {
+            expired = wheel.advance(System.currentTimeMillis());
+            for (Expiry expiry : expired) {
+                timeouts.remove(expiry.holdId());
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    slotHoldRepository.deleteAllByIdInBatch(expired.stream().map(Expiry::holdId).toList()));
+        } catch (RuntimeException e) {
+            // The rows are removed by the sweep or when the slot is held again
+            System.out.println("Could not delete " + expired.size() + " expired slot holds: " + e.getMessage());
+        }
+        for (Expiry expiry : expired) {
+            availabilityService.releaseHold(expiry.providerId(), expiry.holdId());
+            publishSlotChanged(expiry.providerId(), expiry.serviceId(), expiry.startTime(), false);
+        }
+    }
+
+    // Holds of every node are scheduled; expiring another node's hold here as well is harmless
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<SlotHold> active = slotHoldRepository.findActive(Instant.now());
+        active.forEach(this::schedule);
+        if (!active.isEmpty()) {
+            System.out.println("Restored " + active.size() + " slot holds");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${slot-hold.sweep-interval-ms:300000}", initialDelayString = "${slot-hold.sweep-interval-ms:300000}")
+    public void sweepExpired() {
+        Integer swept = transactionTemplate.execute(status -> slotHoldRepository.deleteExpired(Instant.now()));
+        if (swept != null && swept > 0) {
+            System.out.println("Swept " + swept + " expired slot holds");
+        }
+    }
+
+    private void schedule(SlotHold hold) {
+        synchronized (wheel) {
+            timeouts.computeIfAbsent(hold.getHoldId(), id -> wheel.schedule(
+                    new Expiry(id, hold.getProviderId(), hold.getServiceId(), hold.getStartTime()),
+                    hold.getExpiresAt().toEpochMilli()));
+        }
+    }
+
+    private void forget(Long holdId, Long providerId) {
+        synchronized (wheel) {
+            TimingWheel.Timeout<Expiry> timeout = timeouts.remove(holdId);
+            if (timeout != null) {
+                wheel.cancel(timeout);
+            }
+        }
+        availabilityService.releaseHold(providerId, holdId);
+    }
+
+    private void publishSlotChanged(Long providerId, Integer serviceId, LocalDateTime start, boolean occupied) {
+        eventPublisher.publishEvent(new SlotSearchService.SlotChanged(providerId, start,
+                availabilityService.slotLength(providerId, serviceId, start), occupied));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
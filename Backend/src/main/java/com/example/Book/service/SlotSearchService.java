@@ -0,0 +1,193 @@
+package com.example.Book.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.Book.dto.AvailableServiceDTO;
+import com.example.Book.dto.BookedSlotDTO;
+import com.example.Book.dto.ServiceDTO;
+import com.example.Book.dto.ServiceProviderDTO;
+import com.example.Book.dto.ServiceWindowDTO;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ServiceDateTimeRepository;
+import com.example.Book.util.DayBitmap;
+
+// Catalog-wide free-slot search over per-day occupancy bitmaps: one "open" bitmap per service and
+// day built from its ServiceDateTime windows, one "busy" bitmap per provider and day built from
+// active bookings. A search is a handful of word-wise AND/shift operations per service and day.
+@Service
+public class SlotSearchService {
+
+    // Published after a booking took or gave back a slot; applied once the change has committed
+    public record SlotChanged(Long providerId, LocalDateTime start, Duration length, boolean occupied) {
+    }
+
+    private record ServiceDays(Long providerId, String providerName, ServiceDTO service,
+                               Map<LocalDate, long[]> open) {
+    }
+
+    // Immutable apart from the busy maps, whose bitmaps are replaced rather than modified
+    private record Index(List<ServiceDays> services, Map<Long, Map<LocalDate, long[]>> busy) {
+    }
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private ServiceDateTimeRepository serviceDateTimeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final Duration defaultDuration;
+    private volatile Index index;
+
+    public SlotSearchService(@Value("${availability.default-duration:60m}") Duration defaultDuration) {
+        this.defaultDuration = defaultDuration;
+    }
+
+    public List<AvailableServiceDTO> search(String category, LocalDate from, LocalDate to, Duration length,
+                                            int slotsPerService, int maxResults) {
+        Index current = index != null ? index : rebuild();
+        LocalDate today = LocalDate.now();
+        if (from.isBefore(today)) {
+            from = today;
+        }
+        int slots = (int) Math.max(1, (length.toMinutes() + DayBitmap.SLOT_MINUTES - 1) / DayBitmap.SLOT_MINUTES);
+        LocalDateTime now = LocalDateTime.now();
+        List<AvailableServiceDTO> results = new ArrayList<>();
+
+        for (ServiceDays service : current.services()) {
+            if (category != null && !category.equalsIgnoreCase(service.service().getCategory())) {
+                continue;
+            }
+            Map<LocalDate, long[]> busy = current.busy().getOrDefault(service.providerId(), Map.of());
+            List<LocalDateTime> open = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to) && open.size() < slotsPerService; day = day.plusDays(1)) {
+                long[] dayOpen = service.open().get(day);
+                if (dayOpen == null) {
+                    continue;
+                }
+                long[] starts = DayBitmap.runStarts(DayBitmap.free(dayOpen, busy.get(day)), slots);
+                int first = day.equals(now.toLocalDate()) ? slotCeiling(now.toLocalTime()) : 0;
+                for (int bit = DayBitmap.nextSetBit(starts, first); bit >= 0 && open.size() < slotsPerService;
+                        bit = DayBitmap.nextSetBit(starts, bit + slots)) {
+                    open.add(day.atStartOfDay().plusMinutes((long) bit * DayBitmap.SLOT_MINUTES));
+                }
+            }
+            if (!open.isEmpty()) {
+                results.add(new AvailableServiceDTO(service.providerId(), service.providerName(),
+                        service.service().getServiceId(), service.service().getName(),
+                        service.service().getCategory(), open));
+                if (results.size() >= maxResults) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotChanged(SlotChanged event) {
+        Index current = index;
+        if (current == null) {
+            return;
+        }
+        Map<LocalDate, long[]> busy = current.busy().computeIfAbsent(event.providerId(), id -> new ConcurrentHashMap<>());
+        mark(busy, event.start(), event.start().plus(event.length()), event.occupied(), false);
+    }
+
+    // Windows and services change rarely and without events, so the whole index is rebuilt periodically
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${slot-search.rebuild-interval-ms:600000}", initialDelayString = "${slot-search.rebuild-interval-ms:600000}")
+    public synchronized Index rebuild() {
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+
+        Map<Integer, List<ServiceWindowDTO>> windowsByService = new HashMap<>();
+        for (ServiceWindowDTO window : serviceDateTimeRepository.findWindowsEndingAfter(startOfToday)) {
+            if (window.getStartTime() != null && window.getEndTime() != null) {
+                windowsByService.computeIfAbsent(window.getServiceId(), id -> new ArrayList<>()).add(window);
+            }
+        }
+
+        List<ServiceDays> services = new ArrayList<>();
+        for (ServiceProviderDTO provider : catalogService.current().providers()) {
+            if (Boolean.FALSE.equals(provider.getIsActive())) {
+                continue;
+            }
+            for (ServiceDTO service : provider.getServices()) {
+                List<ServiceWindowDTO> windows = windowsByService.get(service.getServiceId());
+                if (windows == null) {
+                    continue;
+                }
+                Map<LocalDate, long[]> open = new HashMap<>();
+                for (ServiceWindowDTO window : windows) {
+                    mark(open, window.getStartTime(), window.getEndTime(), true, true);
+                }
+                services.add(new ServiceDays(provider.getProviderId(), provider.getUsername(), service, open));
+            }
+        }
+
+        Map<Long, Map<LocalDate, long[]>> busy = new ConcurrentHashMap<>();
+        for (BookedSlotDTO slot : bookingRepository.findActiveSlotsFrom(startOfToday)) {
+            if (slot.getBookingDateTime() == null) {
+                continue;
+            }
+            Duration length = bookingLength(windowsByService.get(slot.getServiceId()), slot.getBookingDateTime());
+            mark(busy.computeIfAbsent(slot.getProviderId(), id -> new ConcurrentHashMap<>()),
+                    slot.getBookingDateTime(), slot.getBookingDateTime().plus(length), true, false);
+        }
+
+        index = new Index(List.copyOf(services), busy);
+        return index;
+    }
+
+    // Same rule as AvailabilityService: the slot length of the window the booking starts in
+    private Duration bookingLength(List<ServiceWindowDTO> windows, LocalDateTime start) {
+        if (windows != null) {
+            for (ServiceWindowDTO window : windows) {
+                if (window.contains(start)) {
+                    return window.slotLength(defaultDuration);
+                }
+            }
+        }
+        return defaultDuration;
+    }
+
+    // Sets or clears the slots of [start, end), splitting at midnight. Open windows only count slots
+    // they cover completely; bookings block every slot they touch.
+    private static void mark(Map<LocalDate, long[]> days, LocalDateTime start, LocalDateTime end,
+                             boolean value, boolean wholeSlotsOnly) {
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            boolean firstDay = day.equals(start.toLocalDate());
+            boolean lastDay = day.equals(end.toLocalDate());
+            int from = !firstDay ? 0 : wholeSlotsOnly ? slotCeiling(start.toLocalTime()) : slotFloor(start.toLocalTime());
+            int to = !lastDay ? DayBitmap.SLOTS : wholeSlotsOnly ? slotFloor(end.toLocalTime()) : slotCeiling(end.toLocalTime());
+            days.compute(day, (key, bits) -> DayBitmap.with(bits == null ? DayBitmap.empty() : bits, from, to, value));
+        }
+    }
+
+    private static int slotFloor(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / DayBitmap.SLOT_MINUTES;
+    }
+
+    private static int slotCeiling(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+        return (minutes + DayBitmap.SLOT_MINUTES - 1) / DayBitmap.SLOT_MINUTES;
+    }
+}
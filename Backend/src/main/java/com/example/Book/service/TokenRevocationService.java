@@ -0,0 +1,182 @@
+package com.example.Book.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.model.RevokedToken;
+import com.example.Book.repo.RevokedTokenRepository;
+import com.example.Book.util.BloomFilter;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Revoked tokens live in the revoked_token table and are mirrored in memory. A Bloom filter in
+// front of the exact map answers "not revoked" for almost every request without hashing into the
+// map, and never touches the database.
+@Service
+public class TokenRevocationService {
+
+    private static final String SUBJECT_PREFIX = "sub:";
+
+    // Rough per-entry cost of the exact map: node, key string and value record
+    private static final long ESTIMATED_ENTRY_BYTES = 160;
+
+    private record Revocation(long revokedAtMillis, long expiresAtMillis) {
+    }
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Revocation> revoked = new ConcurrentHashMap<>();
+    private final double falsePositiveRate;
+    private final long minimumCapacity;
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public TokenRevocationService(@Value("${jwt.revocation.expected-entries:100000}") long expectedEntries,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  MeterRegistry meterRegistry) {
+        this.falsePositiveRate = falsePositiveRate;
+        this.minimumCapacity = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+
+        Gauge.builder("jwt.revocation.entries", revoked, Map::size).register(meterRegistry);
+        Gauge.builder("jwt.revocation.memory.bytes", this, TokenRevocationService::estimatedMemoryBytes)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("jwt.revocation.checks", checks, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("jwt.revocation.false.positives", falsePositives, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("jwt.revocation.false.positive.rate", this, TokenRevocationService::observedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Instant now = Instant.now();
+        for (RevokedToken row : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            remember(row);
+        }
+        lastSync = now;
+        rebuildFilter();
+    }
+
+    // Revokes a single token, e.g. on logout
+    public void revoke(Claims claims) {
+        if (claims.getId() == null) {
+            // Tokens without a jti predate revocation support; revoke the whole subject instead
+            revokeAllForSubject(claims.getSubject());
+            return;
+        }
+        store(claims.getId(), claims.getExpiration().toInstant());
+    }
+
+    // Revokes every token issued to this user so far, e.g. on password change
+    public void revokeAllForSubject(String email) {
+        if (email == null) {
+            return;
+        }
+        store(subjectKey(email), Instant.now().plusMillis(JWTService.TOKEN_VALIDITY_MS));
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && lookup(jti) != null) {
+            return true;
+        }
+        Revocation subject = claims.getSubject() == null ? null : lookup(subjectKey(claims.getSubject()));
+        Date issuedAt = claims.getIssuedAt();
+        // iat has second precision; tokens issued in the same second as the revocation survive
+        return subject != null && issuedAt != null
+                && issuedAt.getTime() < subject.revokedAtMillis() / 1000 * 1000;
+    }
+
+    private Revocation lookup(String key) {
+        checks.increment();
+        if (!filter.mightContain(key)) {
+            return null;
+        }
+        filterHits.increment();
+        Revocation revocation = revoked.get(key);
+        if (revocation == null) {
+            falsePositives.increment();
+        }
+        return revocation;
+    }
+
+    private void store(String key, Instant expiresAt) {
+        Instant now = Instant.now();
+        revokedTokenRepository.save(new RevokedToken(key, now, expiresAt));
+        remember(new RevokedToken(key, now, expiresAt));
+    }
+
+    // A subject revoked again moves its cutoff forward, so the later revocation wins wherever it was made
+    private void remember(RevokedToken row) {
+        revoked.merge(row.getTokenId(), new Revocation(row.getRevokedAt().toEpochMilli(), row.getExpiresAt().toEpochMilli()),
+                (known, seen) -> new Revocation(Math.max(known.revokedAtMillis(), seen.revokedAtMillis()),
+                        Math.max(known.expiresAtMillis(), seen.expiresAtMillis())));
+        filter.add(row.getTokenId());
+        if (revoked.size() > filter.expectedInsertions()) {
+            rebuildFilter();
+        }
+    }
+
+    // Picks up revocations made by other nodes
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}", initialDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        Instant now = Instant.now();
+        // Small overlap so rows committed slightly out of order are not missed
+        Instant since = lastSync.minus(Duration.ofMinutes(1));
+        for (RevokedToken row : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            remember(row);
+        }
+        lastSync = now;
+    }
+
+    // Entries are only needed until the token's own exp has passed
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}", initialDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() < now);
+        revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+        // Bloom filters cannot delete, so purged keys are dropped by rebuilding
+        rebuildFilter();
+    }
+
+    private synchronized void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(minimumCapacity, revoked.size() * 2L), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        // Keys revoked while rebuilding are added to the new filter as well
+        revoked.keySet().forEach(rebuilt::add);
+    }
+
+    private double observedFalsePositiveRate() {
+        long negatives = checks.sum() - (filterHits.sum() - falsePositives.sum());
+        return negatives <= 0 ? 0.0 : (double) falsePositives.sum() / negatives;
+    }
+
+    private double estimatedMemoryBytes() {
+        return filter.sizeInBytes() + (double) revoked.size() * ESTIMATED_ENTRY_BYTES;
+    }
+
+    private static String subjectKey(String email) {
+        return SUBJECT_PREFIX + IdentityService.normalize(email);
+    }
+}
@@ -3,12 +3,16 @@ package com.example.Book.service;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.Book.dto.PasswordResetRequest;
+import com.example.Book.exception.HashingCapacityException;
 import com.example.Book.model.Consumer;
 import com.example.Book.model.ServiceProvider;
 import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.model.UserIdentity;
 import com.example.Book.repo.ServiceProviderRepository;
 
 @Service
@@ -23,17 +27,38 @@ public class UserService {
     @Autowired
     private JWTService jwtService;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
+
+    @Autowired
+    private IdentityService identityService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     // Register Service Provider with password hashing
     public String registerServiceProvider(ServiceProvider provider) {
-        Optional<ServiceProvider> exist = serviceProviderRepository.findByEmail(provider.getEmail());
-        if (exist.isPresent()) {
+        if (identityService.isRegistered(provider.getEmail())) {
             throw new RuntimeException("Service Provider already exists!");
         }
+        // Hash before opening the transaction so no connection is held while BCrypt runs
+        provider.setPassword(passwordHashingService.encode(provider.getPassword()));
         try {
-            provider.setPassword(passwordEncoder.encode(provider.getPassword()));
-            serviceProviderRepository.save(provider);
+            transactionTemplate.executeWithoutResult(status -> {
+                serviceProviderRepository.save(provider);
+                identityService.register(provider.getEmail(), UserIdentity.SERVICE_PROVIDER, provider.getProvider_id());
+            });
+            myUserDetailsService.evictPrincipal(provider.getEmail());
+            eventPublisher.publishEvent(new CatalogService.ProviderChanged(provider.getProvider_id()));
             return "Service Provider registered successfully!";
         } catch (Exception e) {
             throw new RuntimeException("Service Provider registration failed: " + e.getMessage());
@@ -43,14 +68,17 @@ public class UserService {
     // Register Consumer with password hashing
     public String registerConsumer(Consumer consumer) {
         
-        Optional<Consumer> exist = consumerRepository.findByEmail(consumer.getEmail());
-        if (exist.isPresent()) {
+        if (identityService.isRegistered(consumer.getEmail())) {
             throw new RuntimeException("Email already registered!");
         }
         
+        consumer.setPassword(passwordHashingService.encode(consumer.getPassword()));
         try {
-            consumer.setPassword(passwordEncoder.encode(consumer.getPassword()));
-            consumerRepository.save(consumer);
+            transactionTemplate.executeWithoutResult(status -> {
+                consumerRepository.save(consumer);
+                identityService.register(consumer.getEmail(), UserIdentity.CONSUMER, consumer.getClient_id());
+            });
+            myUserDetailsService.evictPrincipal(consumer.getEmail());
             return "Consumer registered successfully!";
         } catch (Exception e) {
             throw new RuntimeException("Registration failed: " + e.getMessage());
@@ -59,37 +87,63 @@ public class UserService {
 
     // Login both - verify password and return JWT token
     public String loginUser(String email, String password) {
-        Optional<Consumer> consumerOpt = consumerRepository.findByEmail(email);
-        if (consumerOpt.isPresent()) {
-            Consumer consumer = consumerOpt.get();
-            if (passwordEncoder.matches(password, consumer.getPassword())) {
+        Optional<?> user = identityService.findUser(email);
+        if (user.isPresent()) {
+            String storedHash = passwordOf(user.get());
+            if (passwordHashingService.matches(password, storedHash)) {
+                rehashIfNeeded(user.get(), password, storedHash);
                 return jwtService.generateToken(email);
             }
         }
 
-        Optional<ServiceProvider> providerOpt = serviceProviderRepository.findByEmail(email);
-        if (providerOpt.isPresent()) {
-            ServiceProvider provider = providerOpt.get();
-            if (passwordEncoder.matches(password, provider.getPassword())) {
-                return jwtService.generateToken(email);
-            }
+        throw new RuntimeException("Invalid email or password!");
+    }
+
+    // Change password for either role after verifying the current one
+    public String resetPassword(PasswordResetRequest request) {
+        String email = request.getEmail();
+        Optional<?> user = identityService.findUser(email);
+        if (user.isPresent() && passwordHashingService.matches(request.getOldPassword(), passwordOf(user.get()))) {
+            updatePassword(user.get(), passwordHashingService.encode(request.getNewPassword()));
+            tokenRevocationService.revokeAllForSubject(email);
+            return "Password updated successfully!";
         }
 
         throw new RuntimeException("Invalid email or password!");
     }
 
-    public Optional<?> getUserByEmail(String email) {
-        Optional<Consumer> consumer = consumerRepository.findByEmail(email);
-        if (consumer.isPresent()) {
-            return Optional.of(consumer.get());
+    // Moves hashes created with an older cost onto the configured one while the plain password is at hand
+    private void rehashIfNeeded(Object user, String rawPassword, String storedHash) {
+        if (!passwordHashingService.needsRehash(storedHash)) {
+            return;
+        }
+        try {
+            updatePassword(user, passwordHashingService.encode(rawPassword));
+        } catch (HashingCapacityException e) {
+            // Pool is busy; the hash is upgraded on a later login instead
         }
+    }
 
-        Optional<ServiceProvider> provider = serviceProviderRepository.findByEmail(email);
-        if (provider.isPresent()) {
-            return Optional.of(provider.get());
+    private void updatePassword(Object user, String encodedPassword) {
+        if (user instanceof Consumer consumer) {
+            consumer.setPassword(encodedPassword);
+            consumerRepository.save(consumer);
+            myUserDetailsService.evictPrincipal(consumer.getEmail());
+        } else if (user instanceof ServiceProvider provider) {
+            provider.setPassword(encodedPassword);
+            serviceProviderRepository.save(provider);
+            myUserDetailsService.evictPrincipal(provider.getEmail());
         }
+    }
 
-        return Optional.empty();
+    public Optional<?> getUserByEmail(String email) {
+        return identityService.findUser(email);
+    }
 
+    private static String passwordOf(Object user) {
+        if (user instanceof Consumer consumer) {
+            return consumer.getPassword();
+        }
+        return ((ServiceProvider) user).getPassword();
     }
 }
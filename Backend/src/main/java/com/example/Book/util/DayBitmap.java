@@ -0,0 +1,88 @@
+package com.example.Book.util;
+
+// One day at 5-minute granularity as 288 bits in a long[5]; bit i covers minutes [5i, 5i + 5).
+// Arrays are treated as values: every operation that changes bits returns a new array, so a
+// bitmap that has been published can be read without locking.
+public final class DayBitmap {
+
+    public static final int SLOT_MINUTES = 5;
+    public static final int SLOTS = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS = (SLOTS + 63) / 64;
+
+    private DayBitmap() {
+    }
+
+    public static long[] empty() {
+        return new long[WORDS];
+    }
+
+    // Copy with bits [from, to) set or cleared
+    public static long[] with(long[] bits, int from, int to, boolean value) {
+        long[] result = bits.clone();
+        for (int i = Math.max(0, from); i < Math.min(SLOTS, to); i++) {
+            if (value) {
+                result[i >>> 6] |= 1L << i;
+            } else {
+                result[i >>> 6] &= ~(1L << i);
+            }
+        }
+        return result;
+    }
+
+    // Bits set in open and clear in busy
+    public static long[] free(long[] open, long[] busy) {
+        long[] result = new long[WORDS];
+        for (int w = 0; w < WORDS; w++) {
+            result[w] = open[w] & ~(busy == null ? 0 : busy[w]);
+        }
+        return result;
+    }
+
+    // Bit i of the result is set iff bits i .. i + length - 1 are all set. Doubling the covered run
+    // each round needs O(log length) word-wise AND/shift passes instead of one pass per slot.
+    public static long[] runStarts(long[] bits, int length) {
+        long[] runs = bits.clone();
+        int covered = 1;
+        while (covered < length) {
+            int shift = Math.min(covered, length - covered);
+            long[] shifted = shiftDown(runs, shift);
+            for (int w = 0; w < WORDS; w++) {
+                runs[w] &= shifted[w];
+            }
+            covered += shift;
+        }
+        return runs;
+    }
+
+    // Index of the first set bit at or after from, or -1
+    public static int nextSetBit(long[] bits, int from) {
+        if (from >= SLOTS) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int index = w * 64 + Long.numberOfTrailingZeros(word);
+                return index < SLOTS ? index : -1;
+            }
+            if (++w == WORDS) {
+                return -1;
+            }
+            word = bits[w];
+        }
+    }
+
+    // Bit i of the result is bit i + shift of the input
+    private static long[] shiftDown(long[] bits, int shift) {
+        long[] result = new long[WORDS];
+        int words = shift >>> 6;
+        int offset = shift & 63;
+        for (int w = 0; w + words < WORDS; w++) {
+            long low = bits[w + words] >>> offset;
+            long high = offset == 0 || w + words + 1 >= WORDS ? 0 : bits[w + words + 1] << (64 - offset);
+            result[w] = low | high;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.Book.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+// Half-open [start, end) intervals ordered by start in a red-black tree. Because no stored interval
+// is longer than maxLength, every interval overlapping [start, end) starts inside
+// (start - maxLength, end), so an overlap query is one O(log n) descent plus a walk over that range.
+// Not thread-safe; callers guard each instance with a lock.
+public class IntervalSet {
+
+    private record Interval(long start, long end, long id) implements Comparable<Interval> {
+        @Override
+        public int compareTo(Interval other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Long.compare(id, other.id);
+        }
+    }
+
+    private final NavigableSet<Interval> byStart = new TreeSet<>();
+    private final Map<Long, Interval> byId = new HashMap<>();
+    private long maxLength;
+
+    public void add(long id, long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Interval must end after it starts");
+        }
+        remove(id);
+        Interval interval = new Interval(start, end, id);
+        byStart.add(interval);
+        byId.put(id, interval);
+        maxLength = Math.max(maxLength, end - start);
+    }
+
+    public boolean remove(long id) {
+        Interval interval = byId.remove(id);
+        return interval != null && byStart.remove(interval);
+    }
+
+    // Moves an interval to a new id, e.g. once a provisional reservation has been persisted
+    public void rename(long id, long newId) {
+        Interval interval = byId.get(id);
+        if (interval != null) {
+            remove(id);
+            add(newId, interval.start(), interval.end());
+        }
+    }
+
+    public boolean overlaps(long start, long end) {
+        return latestOverlappingEnd(start, end) != Long.MIN_VALUE;
+    }
+
+    // End of the last-ending interval overlapping [start, end), or Long.MIN_VALUE if it is free
+    public long latestOverlappingEnd(long start, long end) {
+        long latest = Long.MIN_VALUE;
+        Interval from = new Interval(start - maxLength, 0, Long.MIN_VALUE);
+        Interval to = new Interval(end, 0, Long.MIN_VALUE);
+        for (Interval interval : byStart.subSet(from, false, to, false)) {
+            if (interval.end() > start) {
+                latest = Math.max(latest, interval.end());
+            }
+        }
+        return latest;
+    }
+
+    // Earliest start >= from at which [start, start + length) overlaps nothing
+    public long firstFreeStart(long from, long length) {
+        long candidate = from;
+        long blockedUntil;
+        while ((blockedUntil = latestOverlappingEnd(candidate, candidate + length)) != Long.MIN_VALUE) {
+            candidate = blockedUntil;
+        }
+        return candidate;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.Book.util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// A repeating start time: occurrence n is start + n steps, computed from the start every time so
+// monthly series keep their day of month (Jan 31, Feb 28, Mar 31). Occurrence 0 is the series'
+// own booking. Nothing is materialized: a window query jumps straight to its first occurrence and
+// generates the rest lazily, so cost and memory depend on the window, not the length of the series.
+public final class RecurrenceRule {
+
+    private final LocalDateTime start;
+    private final LocalDateTime until;
+    private final long amount;
+    private final ChronoUnit unit;
+
+    private RecurrenceRule(LocalDateTime start, LocalDateTime until, long amount, ChronoUnit unit) {
+        this.start = start;
+        this.until = until;
+        this.amount = amount;
+        this.unit = unit;
+    }
+
+    // until is inclusive and may be null for an open-ended series
+    public static RecurrenceRule of(String recurrenceType, LocalDateTime start, LocalDateTime until) {
+        if (recurrenceType == null || start == null) {
+            throw new IllegalArgumentException("A recurrence needs a type and a start");
+        }
+        switch (recurrenceType.toUpperCase(Locale.ROOT)) {
+            case "DAILY":
+                return new RecurrenceRule(start, until, 1, ChronoUnit.DAYS);
+            case "WEEKLY":
+                return new RecurrenceRule(start, until, 1, ChronoUnit.WEEKS);
+            case "BIWEEKLY":
+                return new RecurrenceRule(start, until, 2, ChronoUnit.WEEKS);
+            case "MONTHLY":
+                return new RecurrenceRule(start, until, 1, ChronoUnit.MONTHS);
+            case "YEARLY":
+                return new RecurrenceRule(start, until, 1, ChronoUnit.YEARS);
+            default:
+                throw new IllegalArgumentException("Unknown recurrence type: " + recurrenceType);
+        }
+    }
+
+    public LocalDateTime occurrence(long n) {
+        return start.plus(n * amount, unit);
+    }
+
+    // Occurrences after the first that start in [from, to), in order
+    public Stream<LocalDateTime> repeats(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = until != null && until.isBefore(to) ? until.plusNanos(1) : to;
+        return LongStream.iterate(Math.max(1, firstIndexAtOrAfter(from)), n -> n + 1)
+                .mapToObj(this::occurrence)
+                .takeWhile(occurrence -> occurrence.isBefore(end));
+    }
+
+    public boolean isRepeat(LocalDateTime dateTime) {
+        if (!dateTime.isAfter(start) || (until != null && dateTime.isAfter(until))) {
+            return false;
+        }
+        return occurrence(firstIndexAtOrAfter(dateTime)).equals(dateTime);
+    }
+
+    private long firstIndexAtOrAfter(LocalDateTime from) {
+        if (!from.isAfter(start)) {
+            return 0;
+        }
+        long n;
+        if (unit == ChronoUnit.MONTHS || unit == ChronoUnit.YEARS) {
+            // Month lengths vary; the estimate is off by at most one step either way
+            n = unit.between(start, from) / amount;
+            while (n > 0 && !occurrence(n - 1).isBefore(from)) {
+                n--;
+            }
+        } else {
+            long stepSeconds = unit.getDuration().multipliedBy(amount).getSeconds();
+            n = Duration.between(start, from).getSeconds() / stepSeconds;
+        }
+        while (occurrence(n).isBefore(from)) {
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.Book.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hashed timing wheel: a timeout goes into the bucket of its deadline tick modulo the wheel size,
+// with a round count for deadlines more than one turn away. Buckets are doubly linked lists, so
+// scheduling and cancelling are O(1), and advancing the clock only visits the buckets of the
+// ticks that passed. Timeouts never fire before their deadline and at most one tick after it.
+// Not thread-safe; callers guard each instance with a lock.
+public class TimingWheel<T> {
+
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadlineMillis;
+        private long rounds;
+        private int bucket = -1;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public boolean isPending() {
+            return bucket >= 0;
+        }
+    }
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final int mask;
+    private final Timeout<T>[] buckets;
+    // Next tick to process
+    private long tick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int buckets = Integer.highestOneBit(wheelSize);
+        if (buckets < wheelSize) {
+            buckets <<= 1;
+        }
+        this.startMillis = nowMillis;
+        this.tickMillis = tickMillis;
+        this.mask = buckets - 1;
+        this.buckets = new Timeout[buckets];
+    }
+
+    // Deadlines in the past fire on the next advance
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.max(tick, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+        timeout.rounds = (deadlineTick - tick) / buckets.length;
+        link(timeout, (int) (deadlineTick & mask));
+        return timeout;
+    }
+
+    // False if the timeout already fired or was cancelled
+    public boolean cancel(Timeout<T> timeout) {
+        if (!timeout.isPending()) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    // Runs the clock up to now and returns the items whose deadline has passed
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long lastTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        for (; tick <= lastTick; tick++) {
+            if (size == 0) {
+                tick = lastTick + 1;
+                break;
+            }
+            Timeout<T> timeout = buckets[(int) (tick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.rounds == 0) {
+                    unlink(timeout);
+                    expired.add(timeout.item);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void link(Timeout<T> timeout, int bucket) {
+        Timeout<T> head = buckets[bucket];
+        timeout.bucket = bucket;
+        timeout.next = head;
+        if (head != null) {
+            head.previous = timeout;
+        }
+        buckets[bucket] = timeout;
+        size++;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.Book.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free token bucket. The state is an immutable snapshot swapped with CAS, so concurrent
+// requests from the same client never block each other. Times are System.nanoTime() values
+// passed in by the caller, which keeps the bucket testable.
+public class TokenBucket {
+
+    private record State(double tokens, long refilledAtNanos) {
+    }
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, long refillPeriodNanos, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / refillPeriodNanos;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    // Returns 0 if a token was taken, otherwise the nanoseconds until the next token is available
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = available(current, nowNanos);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(nowNanos, current.refilledAtNanos())))) {
+                return 0;
+            }
+        }
+    }
+
+    private double available(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.refilledAtNanos());
+        return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+    }
+}
@@ -0,0 +1,22 @@
+-- Booking events written with the booking, and how far each subscriber has processed them
+CREATE TABLE IF NOT EXISTS booking_outbox (
+    event_id BIGINT NOT NULL PRIMARY KEY,
+    position BIGINT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    booking_id BIGINT NULL,
+    provider_id BIGINT NULL,
+    service_id INT NULL,
+    consumer_id BIGINT NULL,
+    booking_date_time DATETIME(6) NULL,
+    origin_node VARCHAR(36) NULL,
+    created_at DATETIME(6) NULL
+);
+CREATE INDEX ix_booking_outbox_position ON booking_outbox (position);
+
+CREATE TABLE IF NOT EXISTS booking_outbox_seq (next_val BIGINT);
+INSERT INTO booking_outbox_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM booking_outbox_seq);
+
+CREATE TABLE IF NOT EXISTS outbox_offset (
+    subscriber VARCHAR(100) NOT NULL PRIMARY KEY,
+    position BIGINT NULL
+);
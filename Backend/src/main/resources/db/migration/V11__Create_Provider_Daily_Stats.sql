@@ -0,0 +1,17 @@
+-- Price a booking was made at, and the outbox fields the statistics and availability subscribers need
+ALTER TABLE booking ADD COLUMN price DOUBLE NULL;
+ALTER TABLE booking_outbox ADD COLUMN price DOUBLE NULL;
+ALTER TABLE booking_outbox ADD COLUMN holds_slot BOOLEAN NULL;
+
+-- Daily booking counts and revenue per provider and service; filled by ProviderStatsService on
+-- startup when empty and reconciled nightly
+CREATE TABLE IF NOT EXISTS provider_daily_stats (
+    provider_id BIGINT NOT NULL,
+    service_id INT NOT NULL,
+    booking_day DATE NOT NULL,
+    booking_count BIGINT NULL,
+    cancelled_count BIGINT NULL,
+    revenue DECIMAL(14, 2) NULL,
+    PRIMARY KEY (provider_id, service_id, booking_day)
+);
+CREATE INDEX ix_provider_daily_stats_provider_day ON provider_daily_stats (provider_id, booking_day);
@@ -0,0 +1,16 @@
+-- Checkout holds, mirrored from memory so other nodes see them and they survive a restart
+CREATE TABLE IF NOT EXISTS slot_hold (
+    hold_id BIGINT NOT NULL PRIMARY KEY,
+    provider_id BIGINT NULL,
+    service_id INT NULL,
+    consumer_id BIGINT NULL,
+    start_time DATETIME(6) NULL,
+    slot_key VARCHAR(64) NULL,
+    expires_at DATETIME(6) NULL,
+    created_at DATETIME(6) NULL,
+    CONSTRAINT ux_slot_hold_slot_key UNIQUE (slot_key)
+);
+CREATE INDEX ix_slot_hold_provider_expires ON slot_hold (provider_id, expires_at);
+
+CREATE TABLE IF NOT EXISTS slot_hold_seq (next_val BIGINT);
+INSERT INTO slot_hold_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM slot_hold_seq);
@@ -0,0 +1,3 @@
+-- Date-range reads of a provider's schedule and of a service's availability windows
+CREATE INDEX ix_schedule_provider_time ON schedule (provider_id, date_time, schedule_id);
+CREATE INDEX ix_service_date_time_service_start ON service_date_time (service_id, start_time);
@@ -0,0 +1,8 @@
+-- Typed day of each service window, so day and week lookups are index seeks instead of string scans
+ALTER TABLE service_date_time ADD COLUMN service_date DATE NULL;
+
+UPDATE service_date_time SET service_date = DATE(start_time) WHERE start_time IS NOT NULL;
+UPDATE service_date_time SET service_date = STR_TO_DATE(TRIM(date), '%Y-%m-%d')
+WHERE service_date IS NULL AND TRIM(date) REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}$';
+
+CREATE INDEX ix_service_date_time_day ON service_date_time (service_date, service_id);
@@ -0,0 +1,2 @@
+-- Pending reminders by due time, read by the reminder scheduler's recovery sweep
+CREATE INDEX ix_reminder_status_time ON reminder (status, reminder_date_time);
@@ -0,0 +1,2 @@
+-- Set when the leader cancels and the session's slot is freed; closed groups take no new members
+ALTER TABLE group_booking ADD COLUMN closed BIT(1) NULL;
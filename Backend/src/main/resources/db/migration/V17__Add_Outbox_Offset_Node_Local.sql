@@ -0,0 +1,5 @@
+-- Offsets of node-local subscribers are kept alive by their node and dropped once it stops
+ALTER TABLE outbox_offset ADD COLUMN node_local BIT(1) NULL;
+ALTER TABLE outbox_offset ADD COLUMN heartbeat_at DATETIME(6) NULL;
+-- Left behind by every restart before node-local rows were cleaned up
+DELETE FROM outbox_offset WHERE subscriber LIKE 'availability@%';
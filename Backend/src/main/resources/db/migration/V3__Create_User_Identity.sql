@@ -0,0 +1,23 @@
+-- Unified email index for consumers and service providers
+CREATE TABLE IF NOT EXISTS user_identity (
+    identity_id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    role VARCHAR(32) NOT NULL,
+    owner_id BIGINT NOT NULL,
+    PRIMARY KEY (identity_id),
+    UNIQUE KEY ux_user_identity_email (email),
+    KEY ix_user_identity_owner (role, owner_id)
+);
+
+-- Backfill existing accounts; consumers first so duplicates keep resolving to the consumer
+INSERT IGNORE INTO user_identity (email, role, owner_id)
+SELECT LOWER(TRIM(c.email)), 'CONSUMER', c.client_id
+FROM consumers c
+WHERE c.email IS NOT NULL
+ORDER BY c.client_id;
+
+INSERT IGNORE INTO user_identity (email, role, owner_id)
+SELECT LOWER(TRIM(sp.email)), 'SERVICE_PROVIDER', sp.provider_id
+FROM service_provider sp
+WHERE sp.email IS NOT NULL
+ORDER BY sp.provider_id;
@@ -0,0 +1,3 @@
+-- One active booking per provider and start minute; NULL for cancelled and pre-existing rows
+ALTER TABLE booking ADD COLUMN slot_key VARCHAR(64) NULL;
+CREATE UNIQUE INDEX ux_booking_slot_key ON booking (slot_key);
@@ -0,0 +1,17 @@
+-- Pooled id generators for booking, schedule, reminder and notification (allocationSize = 50).
+-- MySQL has no sequences, so each is a single-row table; start past the ids already in use.
+CREATE TABLE IF NOT EXISTS booking_seq (next_val BIGINT);
+INSERT INTO booking_seq (next_val)
+SELECT COALESCE(MAX(booking_id), 0) + 51 FROM booking WHERE NOT EXISTS (SELECT 1 FROM booking_seq);
+
+CREATE TABLE IF NOT EXISTS schedule_seq (next_val BIGINT);
+INSERT INTO schedule_seq (next_val)
+SELECT COALESCE(MAX(schedule_id), 0) + 51 FROM schedule WHERE NOT EXISTS (SELECT 1 FROM schedule_seq);
+
+CREATE TABLE IF NOT EXISTS reminder_seq (next_val BIGINT);
+INSERT INTO reminder_seq (next_val)
+SELECT COALESCE(MAX(reminder_id), 0) + 51 FROM reminder WHERE NOT EXISTS (SELECT 1 FROM reminder_seq);
+
+CREATE TABLE IF NOT EXISTS notification_seq (next_val BIGINT);
+INSERT INTO notification_seq (next_val)
+SELECT COALESCE(MAX(notification_id), 0) + 51 FROM notification WHERE NOT EXISTS (SELECT 1 FROM notification_seq);
@@ -0,0 +1,4 @@
+-- The session a group books: members share the leader's service and start time
+ALTER TABLE group_booking ADD COLUMN service_id INT NULL;
+ALTER TABLE group_booking ADD COLUMN session_date_time DATETIME(6) NULL;
+ALTER TABLE group_booking ADD CONSTRAINT fk_group_booking_service FOREIGN KEY (service_id) REFERENCES service (service_id);
@@ -0,0 +1,9 @@
+-- Cancelled or moved occurrences of recurring appointments; regular occurrences are never stored
+CREATE TABLE IF NOT EXISTS recurrence_exception (
+    exception_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recurrence_id INT NOT NULL,
+    original_date_time DATETIME(6) NOT NULL,
+    rescheduled_date_time DATETIME(6) NULL,
+    CONSTRAINT fk_recurrence_exception_series FOREIGN KEY (recurrence_id) REFERENCES recurring_appointment (recurrence_id),
+    CONSTRAINT ux_recurrence_exception_occurrence UNIQUE (recurrence_id, original_date_time)
+);
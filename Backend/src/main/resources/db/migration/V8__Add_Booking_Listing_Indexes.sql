@@ -0,0 +1,7 @@
+-- Provider copied onto booking so provider listings need no join, plus the keyset pagination indexes
+ALTER TABLE booking ADD COLUMN provider_id BIGINT NULL;
+UPDATE booking b JOIN service s ON s.service_id = b.service_id SET b.provider_id = s.provider_id;
+
+CREATE INDEX ix_booking_date_time ON booking (booking_date_time, booking_id);
+CREATE INDEX ix_booking_provider_time ON booking (provider_id, booking_date_time, booking_id);
+CREATE INDEX ix_booking_consumer_time ON booking (client_id, booking_date_time, booking_id);
@@ -0,0 +1,10 @@
+-- Responses of requests made with an Idempotency-Key, kept until expires_at
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    key_hash VARCHAR(64) NOT NULL PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INT NULL,
+    response_body TEXT NULL,
+    created_at DATETIME(6) NULL,
+    expires_at DATETIME(6) NULL
+);
+CREATE INDEX ix_idempotency_record_expires_at ON idempotency_record (expires_at);
@@ -0,0 +1,120 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+
+import com.example.Book.dto.AvailabilityDTO;
+import com.example.Book.dto.BookingDTO;
+import com.example.Book.exception.BookingAccessException;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.AuthenticatedUser;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceDateTime;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.model.UserIdentity;
+
+@DataJpaTest
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class })
+class BookingAvailabilityTests {
+
+    private static final LocalDateTime NINE = LocalDateTime.now().plusDays(7).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private ServiceProvider provider;
+    private Consumer consumer;
+    private Services haircut;
+
+    @BeforeEach
+    void seed() {
+        provider = new ServiceProvider();
+        provider.setUsername("barber");
+        provider.setEmail("barber@example.com");
+        entityManager.persist(provider);
+
+        haircut = new Services();
+        haircut.setProvider(provider);
+        haircut.setName("Haircut");
+        entityManager.persist(haircut);
+
+        // 09:00-12:00 in 30 minute slots
+        ServiceDateTime window = new ServiceDateTime();
+        window.setServices(haircut);
+        window.setStartTime(NINE);
+        window.setEndTime(NINE.plusHours(3));
+        window.setDuration(30);
+        entityManager.persist(window);
+
+        consumer = new Consumer();
+        consumer.setUsername("client");
+        consumer.setEmail("client@example.com");
+        entityManager.persist(consumer);
+        entityManager.flush();
+    }
+
+    @Test
+    void overlappingBookingIsRejected() {
+        bookingService.saveBooking(booking(NINE));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(booking(NINE.plusMinutes(15))));
+        assertNotNull(bookingService.saveBooking(booking(NINE.plusMinutes(30))));
+    }
+
+    @Test
+    void availabilityReportsNextFreeSlotOnTheWindowGrid() {
+        bookingService.saveBooking(booking(NINE));
+        bookingService.saveBooking(booking(NINE.plusMinutes(30)));
+
+        AvailabilityDTO availability = bookingService.checkAvailability(haircut.getService_id(), NINE.plusMinutes(10));
+        assertFalse(availability.getAvailable());
+        assertEquals(30, availability.getDurationMinutes());
+        assertEquals(NINE.plusMinutes(60), availability.getNextAvailableDateTime());
+
+        assertTrue(bookingService.checkAvailability(haircut.getService_id(), NINE.plusHours(2)).getAvailable());
+    }
+
+    @Test
+    void onlyThePartiesOfABookingCanCancelIt() {
+        Booking booking = bookingService.saveBooking(booking(NINE));
+        Consumer stranger = new Consumer();
+        stranger.setUsername("stranger");
+        stranger.setEmail("stranger@example.com");
+        entityManager.persist(stranger);
+
+        BookingAccessException foreign = assertThrows(BookingAccessException.class, () -> bookingService.cancelBooking(
+                booking.getBookingId(), new AuthenticatedUser(stranger.getEmail(), "", List.of(), stranger.getClient_id(),
+                        UserIdentity.CONSUMER, stranger.getUsername())));
+        assertEquals(HttpStatus.FORBIDDEN, foreign.getStatus());
+        assertEquals(HttpStatus.UNAUTHORIZED, assertThrows(BookingAccessException.class,
+                () -> bookingService.cancelBooking(booking.getBookingId(), null)).getStatus());
+
+        // The provider may cancel on the consumer's behalf
+        assertFalse(bookingService.cancelBooking(booking.getBookingId(), new AuthenticatedUser(provider.getEmail(), "",
+                List.of(), provider.getProvider_id(), UserIdentity.SERVICE_PROVIDER, provider.getUsername())).getStatus());
+    }
+
+    private BookingDTO booking(LocalDateTime at) {
+        return new BookingDTO(consumer.getClient_id().intValue(), haircut.getService_id(), null, at, true, null);
+    }
+}
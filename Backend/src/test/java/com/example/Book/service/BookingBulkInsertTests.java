@@ -0,0 +1,149 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.dto.BookingDTO;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Single vs bulk insert throughput on the embedded database. The rates are printed for comparison;
+// the assertions only cover correctness and the number of statements, which is what batching changes.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class })
+class BookingBulkInsertTests {
+
+    private static final int ROWS = 400;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Services service;
+    private Consumer consumer;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("clinic");
+        provider.setEmail("clinic@example.com");
+        serviceProviderRepository.save(provider);
+
+        service = new Services();
+        service.setProvider(provider);
+        service.setName("Check-up");
+        serviceRepository.save(service);
+
+        consumer = new Consumer();
+        consumer.setUsername("patient");
+        consumer.setEmail("patient@example.com");
+        consumerRepository.save(consumer);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void bulkInsertBatchesStatementsAndOutpacesSingleInserts() {
+        // Warm up the index and the connection pool before timing
+        bookingService.saveBookings(bookings(ROWS * 2, 10));
+        statistics.clear();
+
+        long singleStart = System.nanoTime();
+        for (BookingDTO booking : bookings(0, ROWS)) {
+            bookingService.saveBooking(booking);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+        long singleStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        long bulkStart = System.nanoTime();
+        assertEquals(ROWS, bookingService.saveBookings(bookings(ROWS, ROWS)).size());
+        long bulkNanos = System.nanoTime() - bulkStart;
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("Booking inserts: single %.0f rows/s (%d statements), bulk %.0f rows/s (%d statements)%n",
+                ROWS * 1e9 / singleNanos, singleStatements, ROWS * 1e9 / bulkNanos, bulkStatements);
+        assertEquals(ROWS * 2 + 10, bookingRepository.count());
+        assertTrue(bulkStatements < ROWS / 10, "bulk insert used " + bulkStatements + " statements");
+        assertTrue(bulkStatements * 10 < singleStatements);
+    }
+
+    @Test
+    void bulkInsertIsAllOrNothing() {
+        bookingService.saveBooking(bookings(5, 1).get(0));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBookings(bookings(0, 10)));
+        assertEquals(1, bookingRepository.count());
+        // The holds of the rolled back batch were released
+        assertTrue(bookingService.checkAvailability(service.getService_id(), FIRST_SLOT).getAvailable());
+    }
+
+    @Test
+    void bulkInsertRejectsUnknownServices() {
+        List<BookingDTO> bookings = bookings(0, 2);
+        bookings.get(1).setServiceId(-1);
+
+        assertThrows(RuntimeException.class, () -> bookingService.saveBookings(bookings));
+        assertEquals(0, bookingRepository.count());
+    }
+
+    // Back-to-back hourly slots, starting count hours after the first slot
+    private List<BookingDTO> bookings(int offset, int count) {
+        List<BookingDTO> bookings = new ArrayList<>();
+        for (int i = offset; i < offset + count; i++) {
+            bookings.add(new BookingDTO(consumer.getClient_id().intValue(), service.getService_id(), null, FIRST_SLOT.plusHours(i), true, null));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.dto.BookingDTO;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+
+// Runs without a test transaction so every booking attempt really commits or rolls back
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class })
+class BookingConcurrencyTests {
+
+    private static final int THREADS = 200;
+    private static final LocalDateTime SLOT = LocalDateTime.now().plusDays(3).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    private Services service;
+    private List<Consumer> consumers = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("popular");
+        provider.setEmail("popular@example.com");
+        serviceProviderRepository.save(provider);
+
+        service = new Services();
+        service.setProvider(provider);
+        service.setName("Consultation");
+        serviceRepository.save(service);
+
+        for (int i = 0; i < THREADS; i++) {
+            Consumer consumer = new Consumer();
+            consumer.setUsername("consumer" + i);
+            consumer.setEmail("consumer" + i + "@example.com");
+            consumers.add(consumerRepository.save(consumer));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void exactlyOneOfManyRacingConsumersGetsTheSlot() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (Consumer consumer : consumers) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.saveBooking(booking(consumer, SLOT));
+                        booked.incrementAndGet();
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, booked.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void slotKeyRejectsBookingsThisNodeHasNotSeen() {
+        // Warm the index, then insert a booking behind its back as another node would
+        assertTrue(bookingService.checkAvailability(service.getService_id(), SLOT).getAvailable());
+        Booking elsewhere = new Booking();
+        elsewhere.setConsumer(consumers.get(0));
+        elsewhere.setServices(service);
+        elsewhere.setBookingDateTime(SLOT);
+        elsewhere.setStatus(true);
+        elsewhere.setSlotKey(Booking.slotKey(service.getProvider().getProvider_id(), SLOT));
+        bookingRepository.save(elsewhere);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(booking(consumers.get(1), SLOT)));
+        assertEquals(1, bookingRepository.count());
+    }
+
+    private BookingDTO booking(Consumer consumer, LocalDateTime at) {
+        return new BookingDTO(consumer.getClient_id().intValue(), service.getService_id(), null, at, true, null);
+    }
+}
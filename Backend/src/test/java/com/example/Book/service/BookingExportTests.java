@@ -0,0 +1,99 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.Book.dto.BookingFilterDTO;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DataJpaTest(properties = "booking.export.flush-every=7")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(BookingExportService.class)
+class BookingExportTests {
+
+    private static final int ROWS = 50;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 6, 1, 8, 0);
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("exporter");
+        provider.setEmail("exporter@example.com");
+        entityManager.persist(provider);
+
+        Services service = new Services();
+        service.setProvider(provider);
+        service.setName("Massage, \"deep tissue\"");
+        entityManager.persist(service);
+
+        Consumer consumer = new Consumer();
+        consumer.setUsername("reporter");
+        consumer.setEmail("reporter@example.com");
+        entityManager.persist(consumer);
+
+        for (int i = 0; i < ROWS; i++) {
+            Booking booking = new Booking();
+            booking.setConsumer(consumer);
+            booking.setServices(service);
+            booking.setBookingDateTime(START.plusHours(i));
+            booking.setStatus(true);
+            entityManager.persist(booking);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ndjsonHasOneObjectPerBookingInTimeOrder() throws Exception {
+        String[] lines = export(new BookingFilterDTO(), BookingExportService.Format.NDJSON);
+
+        assertEquals(ROWS, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(START.toString() + ":00", first.get("bookingDateTime").asText());
+        assertEquals("reporter", first.get("consumerName").asText());
+        assertEquals(START.plusHours(ROWS - 1).toString() + ":00", objectMapper.readTree(lines[ROWS - 1]).get("bookingDateTime").asText());
+    }
+
+    @Test
+    void csvQuotesFieldsAndRespectsFilters() {
+        BookingFilterDTO filter = new BookingFilterDTO(null, null, START, START.plusHours(10), true);
+        String[] lines = export(filter, BookingExportService.Format.CSV);
+
+        assertEquals(11, lines.length);
+        assertTrue(lines[0].startsWith("bookingId,bookingDateTime"));
+        assertTrue(lines[1].contains(",\"Massage, \"\"deep tissue\"\"\","));
+    }
+
+    private String[] export(BookingFilterDTO filter, BookingExportService.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExportService.export(filter, format, out);
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+
+import com.example.Book.dto.BookingFilterDTO;
+import com.example.Book.dto.BookingPageDTO;
+import com.example.Book.dto.BookingSummaryDTO;
+import com.example.Book.exception.BookingAccessException;
+import com.example.Book.model.AuthenticatedUser;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.model.UserIdentity;
+import com.example.Book.util.BookingCursor;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Pages through the listing and checks that every page is a single query, whatever the filters
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class })
+class BookingListingQueryTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 1, 9, 0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<ServiceProvider> providers = new ArrayList<>();
+    private Consumer consumer;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        consumer = new Consumer();
+        consumer.setUsername("listed");
+        consumer.setEmail("listed@example.com");
+        entityManager.persist(consumer);
+
+        for (int p = 0; p < 2; p++) {
+            ServiceProvider provider = new ServiceProvider();
+            provider.setUsername("provider" + p);
+            provider.setEmail("provider" + p + "@example.com");
+            entityManager.persist(provider);
+            providers.add(provider);
+
+            Services service = new Services();
+            service.setProvider(provider);
+            service.setName("Service " + p);
+            entityManager.persist(service);
+
+            // Pairs of bookings share a start time, so the id has to break ties
+            for (int i = 0; i < 10; i++) {
+                Booking booking = new Booking();
+                booking.setConsumer(consumer);
+                booking.setServices(service);
+                booking.setBookingDateTime(START.plusHours(i / 2));
+                booking.setStatus(i % 3 != 0);
+                entityManager.persist(booking);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pagesCoverEveryBookingOnceInOrder() {
+        List<BookingSummaryDTO> seen = readAll(new BookingFilterDTO(), 3);
+
+        assertEquals(20, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            BookingSummaryDTO previous = seen.get(i - 1);
+            BookingSummaryDTO current = seen.get(i);
+            int byTime = previous.getBookingDateTime().compareTo(current.getBookingDateTime());
+            assertTrue(byTime < 0 || (byTime == 0 && previous.getBookingId() < current.getBookingId()));
+        }
+        assertEquals("listed", seen.get(0).getConsumerName());
+        // 7 pages, the last one short
+        assertEquals(7, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void filtersAreAppliedInTheQuery() {
+        Long providerId = providers.get(1).getProvider_id();
+        BookingFilterDTO filter = new BookingFilterDTO(providerId, consumer.getClient_id(), START.plusHours(1), START.plusHours(4), true);
+
+        List<BookingSummaryDTO> seen = readAll(filter, 2);
+
+        // Hours 1-3 hold bookings 2-7 of the provider; 3 and 6 are inactive
+        assertEquals(4, seen.size());
+        assertTrue(seen.stream().allMatch(row -> row.getProviderId().equals(providerId) && row.getStatus()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookingsSavedWithoutProviderIdAreListedAfterTheStartupBackfill() {
+        Long providerId = providers.get(0).getProvider_id();
+        BookingFilterDTO filter = new BookingFilterDTO(providerId, null, null, null, null);
+        // As left behind by a version that did not copy the provider onto booking
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE booking SET provider_id = NULL WHERE provider_id = :providerId")
+                .setParameter("providerId", providerId)
+                .executeUpdate();
+        assertEquals(0, readAll(filter, 20).size());
+
+        bookingService.backfillProviderIds();
+
+        assertEquals(10, readAll(filter, 20).size());
+        statistics.clear();
+        // Nothing left to do on the next startup
+        bookingService.backfillProviderIds();
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void callersOnlySeeTheirOwnBookings() {
+        ServiceProvider provider = providers.get(1);
+        AuthenticatedUser asProvider = new AuthenticatedUser(provider.getEmail(), "", List.of(), provider.getProvider_id(),
+                UserIdentity.SERVICE_PROVIDER, provider.getUsername());
+        AuthenticatedUser asConsumer = new AuthenticatedUser(consumer.getEmail(), "", List.of(), consumer.getClient_id(),
+                UserIdentity.CONSUMER, consumer.getUsername());
+
+        List<BookingSummaryDTO> providerRows = readAll(bookingService.scopeToCaller(asProvider, new BookingFilterDTO()), 20);
+        assertEquals(10, providerRows.size());
+        assertTrue(providerRows.stream().allMatch(row -> row.getProviderId().equals(provider.getProvider_id())));
+        assertEquals(20, readAll(bookingService.scopeToCaller(asConsumer, new BookingFilterDTO()), 20).size());
+
+        BookingAccessException foreign = assertThrows(BookingAccessException.class, () -> bookingService.scopeToCaller(
+                asProvider, new BookingFilterDTO(providers.get(0).getProvider_id(), null, null, null, null)));
+        assertEquals(HttpStatus.FORBIDDEN, foreign.getStatus());
+        assertThrows(BookingAccessException.class, () -> bookingService.scopeToCaller(
+                asConsumer, new BookingFilterDTO(null, consumer.getClient_id() + 1, null, null, null)));
+        assertEquals(HttpStatus.UNAUTHORIZED, assertThrows(BookingAccessException.class,
+                () -> bookingService.scopeToCaller(null, new BookingFilterDTO())).getStatus());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        BookingPageDTO page = bookingService.getBookingPage(new BookingFilterDTO(), null, 20);
+
+        assertEquals(20, page.getBookings().size());
+        assertNull(page.getNextCursor());
+    }
+
+    private List<BookingSummaryDTO> readAll(BookingFilterDTO filter, int size) {
+        List<BookingSummaryDTO> seen = new ArrayList<>();
+        BookingCursor cursor = null;
+        while (true) {
+            BookingPageDTO page = bookingService.getBookingPage(filter, cursor, size);
+            seen.addAll(page.getBookings());
+            if (page.getNextCursor() == null) {
+                return seen;
+            }
+            cursor = BookingCursor.decode(page.getNextCursor());
+        }
+    }
+}
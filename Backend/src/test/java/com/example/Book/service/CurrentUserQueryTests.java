@@ -0,0 +1,157 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.controller.FileUploadController;
+import com.example.Book.controller.ServiceProviderController;
+import com.example.Book.controller.UserController;
+import com.example.Book.model.AuthenticatedUser;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.UserIdentity;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.UserIdentityRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Statements run per request by the @CurrentUser endpoints. The principal is loaded the way
+// JwtFilter loads it, then handed to the controller methods as the argument resolver would.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ IdentityService.class, MyUserDetailsService.class, UserController.class, ServiceProviderController.class,
+        FileUploadController.class, CurrentUserQueryTests.Metrics.class })
+class CurrentUserQueryTests {
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private FileUploadService fileUploadService;
+
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
+
+    @Autowired
+    private IdentityService identityService;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private ServiceProviderController serviceProviderController;
+
+    @Autowired
+    private FileUploadController fileUploadController;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    @Autowired
+    private UserIdentityRepository userIdentityRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() throws Exception {
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("plumber");
+        provider.setEmail("plumber@example.com");
+        provider.setPassword("secret");
+        serviceProviderRepository.save(provider);
+        identityService.register(provider.getEmail(), UserIdentity.SERVICE_PROVIDER, provider.getProvider_id());
+
+        Consumer consumer = new Consumer();
+        consumer.setUsername("customer");
+        consumer.setEmail("customer@example.com");
+        consumer.setPassword("secret");
+        consumerRepository.save(consumer);
+        identityService.register(consumer.getEmail(), UserIdentity.CONSUMER, consumer.getClient_id());
+
+        when(fileUploadService.uploadFile(any())).thenReturn("/uploads/avatar.png");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        myUserDetailsService.evictPrincipal("plumber@example.com");
+        myUserDetailsService.evictPrincipal("customer@example.com");
+        userIdentityRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void principalIsLoadedOnceAndThenServedFromTheCache() {
+        assertEquals(2, statementsFor(() -> myUserDetailsService.loadUserByUsername("plumber@example.com")));
+        assertEquals(0, statementsFor(() -> myUserDetailsService.loadUserByUsername("plumber@example.com")));
+    }
+
+    @Test
+    void profileEndpointsRunAtMostTheirOwnQueries() {
+        AuthenticatedUser consumer = (AuthenticatedUser) myUserDetailsService.loadUserByUsername("customer@example.com");
+        AuthenticatedUser provider = (AuthenticatedUser) myUserDetailsService.loadUserByUsername("plumber@example.com");
+
+        assertEquals(0, statementsFor(() -> assertOk(userController.getUserProfile(consumer))));
+        assertEquals(0, statementsFor(() -> assertOk(userController.getUserProfile(provider))));
+        // One lookup by primary key, no query by email
+        assertEquals(1, statementsFor(() -> assertOk(serviceProviderController.getServiceProviderProfile(provider))));
+        assertEquals(0, statementsFor(() -> assertOk(fileUploadController.uploadProfileImage(provider,
+                new MockMultipartFile("file", "avatar.png", "image/png", new byte[] { 1 })))));
+    }
+
+    @Test
+    void profileUpdateLoadsTheProviderByIdOnly() {
+        AuthenticatedUser provider = (AuthenticatedUser) myUserDetailsService.loadUserByUsername("plumber@example.com");
+
+        // Load by id, then the merge's select and the update
+        assertEquals(3, statementsFor(() -> assertOk(serviceProviderController.updateServiceProviderProfile(provider,
+                Map.of("bio", "Leaks fixed fast")))));
+        assertEquals("Leaks fixed fast",
+                serviceProviderRepository.findById(provider.getId()).orElseThrow().getBio());
+    }
+
+    private long statementsFor(Runnable request) {
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static void assertOk(ResponseEntity<?> response) {
+        assertEquals(200, response.getStatusCode().value(), String.valueOf(response.getBody()));
+    }
+}
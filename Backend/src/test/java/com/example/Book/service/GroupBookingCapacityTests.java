@@ -0,0 +1,197 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Book.dto.BookingDTO;
+import com.example.Book.dto.GroupBookingDTO;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.AuthenticatedUser;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.model.UserIdentity;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.GroupBookingRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class })
+class GroupBookingCapacityTests {
+
+    private static final int CAPACITY = 25;
+    private static final int THREADS = 120;
+    private static final LocalDateTime SESSION = LocalDateTime.now().plusDays(2).withHour(18).withMinute(0).withSecond(0).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private GroupBookingRepository groupBookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Services service;
+    private final List<Consumer> consumers = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("gym");
+        provider.setEmail("gym@example.com");
+        serviceProviderRepository.save(provider);
+
+        service = new Services();
+        service.setProvider(provider);
+        service.setName("Spin class");
+        serviceRepository.save(service);
+
+        for (int i = 0; i <= THREADS; i++) {
+            Consumer consumer = new Consumer();
+            consumer.setUsername("rider" + i);
+            consumer.setEmail("rider" + i + "@example.com");
+            consumers.add(consumerRepository.save(consumer));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        groupBookingRepository.deleteAll();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentJoinsNeverOverflowTheGroup() throws Exception {
+        Integer groupId = createGroup().getGroup().getGroupId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger turnedAway = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (Consumer consumer : consumers.subList(1, consumers.size())) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.saveBooking(join(consumer, groupId));
+                        joined.incrementAndGet();
+                    } catch (BookingConflictException e) {
+                        turnedAway.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(CAPACITY - 1, joined.get());
+        assertEquals(THREADS - CAPACITY + 1, turnedAway.get());
+        assertEquals(CAPACITY, groupBookingRepository.findById(groupId).orElseThrow().getNoOfMembers());
+        assertEquals(CAPACITY, bookingRepository.count());
+    }
+
+    @Test
+    void consumerCannotJoinTwice() {
+        Integer groupId = createGroup().getGroup().getGroupId();
+        bookingService.saveBooking(join(consumers.get(1), groupId));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(join(consumers.get(1), groupId)));
+        // The rolled back join gave its seat back
+        assertEquals(2, groupBookingRepository.findById(groupId).orElseThrow().getNoOfMembers());
+        for (Consumer consumer : consumers.subList(2, CAPACITY)) {
+            bookingService.saveBooking(join(consumer, groupId));
+        }
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(join(consumers.get(CAPACITY), groupId)));
+    }
+
+    @Test
+    void seatFreedOnAnotherNodeCanBeTakenHere() {
+        Integer groupId = createGroup().getGroup().getGroupId();
+        for (Consumer consumer : consumers.subList(1, CAPACITY)) {
+            bookingService.saveBooking(join(consumer, groupId));
+        }
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(join(consumers.get(CAPACITY), groupId)));
+
+        // A member left through another node, which only updated the group row
+        bookingRepository.delete(bookingRepository.findAll().get(1));
+        transactionTemplate.executeWithoutResult(status -> groupBookingRepository.releaseSeat(groupId));
+
+        bookingService.saveBooking(join(consumers.get(CAPACITY), groupId));
+        assertEquals(CAPACITY, groupBookingRepository.findById(groupId).orElseThrow().getNoOfMembers());
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(join(consumers.get(CAPACITY + 1), groupId)));
+    }
+
+    @Test
+    void nobodyCanJoinOnceTheLeaderCancelled() {
+        Booking leader = createGroup();
+        Integer groupId = leader.getGroup().getGroupId();
+
+        Consumer first = consumers.get(0);
+        bookingService.cancelBooking(leader.getBookingId(), new AuthenticatedUser(first.getEmail(), "", List.of(),
+                first.getClient_id(), UserIdentity.CONSUMER, first.getUsername()));
+
+        assertTrue(groupBookingRepository.findById(groupId).orElseThrow().getClosed());
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(join(consumers.get(1), groupId)));
+        // The session's slot is free for someone else
+        bookingService.saveBooking(new BookingDTO(consumers.get(2).getClient_id().intValue(), service.getService_id(),
+                null, SESSION, true, null));
+        assertEquals(0, groupBookingRepository.findById(groupId).orElseThrow().getNoOfMembers());
+    }
+
+    private Booking createGroup() {
+        return bookingService.createGroupBooking(new GroupBookingDTO("Evening ride",
+                consumers.get(0).getClient_id().intValue(), service.getService_id(), SESSION, CAPACITY));
+    }
+
+    private static BookingDTO join(Consumer consumer, Integer groupId) {
+        return new BookingDTO(consumer.getClient_id().intValue(), null, groupId, null, true, null);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.exception.IdempotencyKeyException;
+import com.example.Book.model.IdempotencyRecord;
+import com.example.Book.repo.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(IdempotencyService.class)
+class IdempotencyServiceTests {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void cleanUp() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void retryReplaysTheStoredResponse() {
+        IdempotencyService.Result first = execute("retry", Map.of("slot", 1));
+        IdempotencyService.Result retry = execute("retry", Map.of("slot", 1));
+
+        assertEquals(1, executions.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(201, retry.statusCode());
+        assertEquals(first.body(), retry.body());
+        assertEquals(201, idempotencyRecordRepository.findAll().get(0).getStatusCode());
+    }
+
+    @Test
+    void retryMissingTheCacheReplaysTheStoredResponse() {
+        IdempotencyService.Result first = execute("restarted", Map.of("slot", 6));
+        // As after a restart, an eviction, or on another node
+        ((Cache<?, ?>) ReflectionTestUtils.getField(idempotencyService, "completed")).invalidateAll();
+
+        IdempotencyService.Result retry = execute("restarted", Map.of("slot", 6));
+
+        assertEquals(1, executions.get());
+        assertTrue(retry.replayed());
+        assertEquals(first.body(), retry.body());
+        assertEquals(201, idempotencyRecordRepository.findAll().get(0).getStatusCode());
+    }
+
+    @Test
+    void liveClaimOfAnotherNodeIsNotTakenOver() {
+        Instant now = Instant.now();
+        execute("elsewhere", Map.of("slot", 7));
+        IdempotencyRecord claim = idempotencyRecordRepository.findAll().get(0);
+        // Another node is still working on the key
+        idempotencyRecordRepository.deleteAll();
+        ((Cache<?, ?>) ReflectionTestUtils.getField(idempotencyService, "completed")).invalidateAll();
+        idempotencyRecordRepository.save(new IdempotencyRecord(claim.getKeyHash(), claim.getRequestHash(), null, null,
+                now, now.plusSeconds(60)));
+
+        IdempotencyKeyException e = assertThrows(IdempotencyKeyException.class, () -> execute("elsewhere", Map.of("slot", 7)));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(1, executions.get());
+        assertNull(idempotencyRecordRepository.findAll().get(0).getStatusCode());
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneExecution() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotencyService.Result>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 32; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute("user", "burst", Map.of("slot", 2), HttpStatus.CREATED, () -> {
+                        executions.incrementAndGet();
+                        sleep(200);
+                        return Map.of("bookingId", 42);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<IdempotencyService.Result> result : results) {
+                assertEquals("{\"bookingId\":42}", result.get(30, TimeUnit.SECONDS).body());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keyCannotBeReusedForADifferentRequest() {
+        execute("reused", Map.of("slot", 3));
+
+        IdempotencyKeyException e = assertThrows(IdempotencyKeyException.class, () -> execute("reused", Map.of("slot", 4)));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+    }
+
+    @Test
+    void failedRequestsAreNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("user", "failing", Map.of("slot", 5),
+                HttpStatus.CREATED, () -> {
+                    throw new IllegalStateException("slot taken");
+                }));
+        assertEquals(0, idempotencyRecordRepository.count());
+
+        assertFalse(execute("failing", Map.of("slot", 5)).replayed());
+    }
+
+    private IdempotencyService.Result execute(String key, Object request) {
+        return idempotencyService.execute("user", key, request, HttpStatus.CREATED, () -> Map.of("run", executions.incrementAndGet()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
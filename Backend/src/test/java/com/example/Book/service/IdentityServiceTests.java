@@ -0,0 +1,71 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.UserIdentity;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.UserIdentityRepository;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(IdentityService.class)
+class IdentityServiceTests {
+
+    @Autowired
+    private IdentityService identityService;
+
+    @Autowired
+    private UserIdentityRepository userIdentityRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @AfterEach
+    void cleanUp() {
+        userIdentityRepository.deleteAll();
+        consumerRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+    }
+
+    @Test
+    void backfillRunsOnceWhenAnEmailIsSharedByBothTables() {
+        Consumer consumer = new Consumer();
+        consumer.setUsername("shared");
+        consumer.setEmail(" Shared@Example.com");
+        consumerRepository.save(consumer);
+        ServiceProvider sharedProvider = new ServiceProvider();
+        sharedProvider.setUsername("shared");
+        sharedProvider.setEmail("shared@example.com ");
+        serviceProviderRepository.save(sharedProvider);
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("plumber");
+        provider.setEmail("plumber@example.com");
+        serviceProviderRepository.save(provider);
+
+        assertTrue(identityService.needsBackfill());
+        identityService.backfill();
+
+        assertEquals(2, userIdentityRepository.count());
+        UserIdentity shared = identityService.resolve("shared@example.com").orElseThrow();
+        assertEquals(UserIdentity.CONSUMER, shared.getRole());
+        assertEquals(consumer.getClient_id(), shared.getOwnerId());
+        // The shared email no longer makes every later startup look incomplete
+        assertFalse(identityService.needsBackfill());
+    }
+}
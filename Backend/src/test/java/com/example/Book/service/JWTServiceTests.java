@@ -0,0 +1,123 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.jsonwebtoken.Claims;
+
+class JWTServiceTests {
+
+    @TempDir
+    Path keyDir;
+
+    private JWTService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newService(keyDir.resolve("jwt.p12"));
+    }
+
+    private static JWTService newService(Path keystore) {
+        SigningKeyRing keyRing = new SigningKeyRing(keystore.toString(), "test", Duration.ofDays(30), Duration.ofHours(10));
+        return new JWTService(keyRing, 100);
+    }
+
+    @Test
+    void verifiedClaimsAreReusedForTheSameToken() {
+        String token = jwtService.generateToken("user@example.com");
+
+        Claims first = jwtService.verifyToken(token);
+        Claims second = jwtService.verifyToken(" " + token + " ");
+
+        assertEquals("user@example.com", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtService.generateToken("user@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(IllegalArgumentException.class, () -> jwtService.verifyToken(tampered));
+    }
+
+    @Test
+    void tokenFromAnotherKeyIsRejected() {
+        String foreign = newService(keyDir.resolve("other.p12")).generateToken("user@example.com");
+
+        assertThrows(IllegalArgumentException.class, () -> jwtService.extractUserName(foreign));
+    }
+
+    @Test
+    void tokensSurviveRestartWithTheSameKeystore() {
+        String token = jwtService.generateToken("user@example.com");
+
+        JWTService restarted = newService(keyDir.resolve("jwt.p12"));
+
+        assertEquals("user@example.com", restarted.extractUserName(token));
+    }
+
+    @Test
+    void tokensSignedBeforeRotationStayValidDuringOverlap() {
+        SigningKeyRing keyRing = new SigningKeyRing(keyDir.resolve("ring.p12").toString(), "test",
+                Duration.ofDays(30), Duration.ofHours(10));
+        JWTService service = new JWTService(keyRing, 100);
+        String before = service.generateToken("user@example.com");
+        String previousKid = keyRing.activeKey().kid();
+
+        keyRing.rotate();
+        String after = service.generateToken("user@example.com");
+
+        assertNotEquals(previousKid, keyRing.activeKey().kid());
+        assertEquals("user@example.com", new JWTService(keyRing, 100).extractUserName(before));
+        assertEquals("user@example.com", service.extractUserName(after));
+    }
+
+    @Test
+    void unknownKidsCannotForceKeystoreReads() throws InterruptedException {
+        Path file = keyDir.resolve("shared.p12");
+        SigningKeyRing local = new SigningKeyRing(file.toString(), "test", Duration.ofDays(30), Duration.ofHours(10));
+        SigningKeyRing other = new SigningKeyRing(file.toString(), "test", Duration.ofDays(30), Duration.ofHours(10));
+
+        // A key another node just added is found straight away
+        other.rotate();
+        String rotated = other.activeKey().kid();
+        assertNotNull(local.verificationKey(rotated));
+
+        other.rotate();
+        String next = other.activeKey().kid();
+        // A kid from the far future does not make this node read the keystore again
+        String forged = "jwt-" + (System.currentTimeMillis() + Duration.ofDays(365).toMillis());
+        assertNull(local.verificationKey(forged));
+        assertNull(local.verificationKey(forged));
+        assertEquals(rotated, local.activeKey().kid());
+
+        Thread.sleep(1_100);
+        assertNotNull(local.verificationKey(next));
+    }
+
+    @Test
+    void validateTokenChecksSubject() {
+        String token = jwtService.generateToken("user@example.com");
+        UserDetails owner = User.withUsername("user@example.com").password("x").roles("CONSUMER").build();
+        UserDetails other = User.withUsername("other@example.com").password("x").roles("CONSUMER").build();
+
+        assertTrue(jwtService.validateToken(token, owner));
+        assertFalse(jwtService.validateToken(token, other));
+    }
+}
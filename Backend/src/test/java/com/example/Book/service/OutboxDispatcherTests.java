@@ -0,0 +1,229 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.dto.BookingDTO;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.OutboxEvent;
+import com.example.Book.model.OutboxOffset;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.OutboxEventRepository;
+import com.example.Book.repo.OutboxOffsetRepository;
+import com.example.Book.repo.ReminderRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+
+// The scheduled poll is pushed out of the way so only the explicit dispatches below deliver, and
+// without retention purges are bounded by the subscribers' offsets alone
+@DataJpaTest(properties = { "outbox.batch-size=4", "outbox.poll-interval-ms=3600000", "outbox.retention=0s" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class, OutboxDispatcher.class, ReminderOutboxSubscriber.class, OutboxDispatcherTests.Subscribers.class })
+class OutboxDispatcherTests {
+
+    private static final LocalDateTime FIRST = LocalDateTime.now().plusDays(2).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    @TestConfiguration
+    static class Subscribers {
+        @Bean
+        RecordingSubscriber flakySubscriber() {
+            return new RecordingSubscriber();
+        }
+
+        @Bean
+        OutboxSubscriber nodeLocalSubscriber() {
+            return new OutboxSubscriber() {
+                @Override
+                public String name() {
+                    return "local@this-node";
+                }
+
+                @Override
+                public boolean replaysHistory() {
+                    return false;
+                }
+
+                @Override
+                public void handle(List<OutboxEvent> events) {
+                }
+            };
+        }
+    }
+
+    // Fails its first delivery, then records what it gets
+    static class RecordingSubscriber implements OutboxSubscriber {
+        final List<Long> bookingIds = new ArrayList<>();
+        final AtomicInteger failuresLeft = new AtomicInteger(1);
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void handle(List<OutboxEvent> events) {
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("temporarily unavailable");
+            }
+            events.forEach(event -> bookingIds.add(event.getBookingId()));
+        }
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private RecordingSubscriber recordingSubscriber;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    private Services service;
+    private Consumer consumer;
+
+    @BeforeEach
+    void seed() {
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("dentist");
+        provider.setEmail("dentist@example.com");
+        serviceProviderRepository.save(provider);
+
+        service = new Services();
+        service.setProvider(provider);
+        service.setName("Cleaning");
+        serviceRepository.save(service);
+
+        consumer = new Consumer();
+        consumer.setUsername("patient");
+        consumer.setEmail("patient@example.com");
+        consumerRepository.save(consumer);
+
+        recordingSubscriber.bookingIds.clear();
+        recordingSubscriber.failuresLeft.set(1);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reminderRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        outboxOffsetRepository.deleteAll();
+        bookingRepository.deleteAll();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void eventsCommitWithTheBookingAndReachEverySubscriber() {
+        List<Long> booked = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            booked.add(bookingService.saveBooking(booking(FIRST.plusHours(i))).getBookingId());
+        }
+        // A rolled back booking leaves no event behind
+        try {
+            bookingService.saveBooking(booking(FIRST));
+        } catch (BookingConflictException expected) {
+        }
+        assertEquals(10, outboxEventRepository.count());
+
+        outboxDispatcher.dispatch();
+        // The reminders subscriber is unaffected by the other one failing
+        assertEquals(10, reminderRepository.count());
+        assertTrue(recordingSubscriber.bookingIds.isEmpty());
+
+        outboxDispatcher.dispatch();
+        assertEquals(booked, recordingSubscriber.bookingIds);
+        assertEquals(10L, outboxOffsetRepository.findById("recording").orElseThrow().getPosition());
+        assertEquals(10, reminderRepository.count());
+    }
+
+    @Test
+    void purgeKeepsEventsADurableSubscriberHasNotReadYet() {
+        for (int i = 0; i < 10; i++) {
+            bookingService.saveBooking(booking(FIRST.plusHours(i)));
+        }
+        outboxDispatcher.dispatch();
+        // The failing subscriber has no offset yet
+        outboxDispatcher.purgeDelivered();
+        assertEquals(10, outboxEventRepository.count());
+
+        outboxDispatcher.dispatch();
+        recordingSubscriber.failuresLeft.set(1);
+        bookingService.saveBooking(booking(FIRST.plusHours(10)));
+        bookingService.saveBooking(booking(FIRST.plusHours(11)));
+        outboxDispatcher.dispatch();
+        assertEquals(12L, outboxOffsetRepository.findById("reminders").orElseThrow().getPosition());
+
+        outboxDispatcher.purgeDelivered();
+        assertEquals(2, outboxEventRepository.count());
+        outboxDispatcher.dispatch();
+        assertEquals(12, recordingSubscriber.bookingIds.size());
+    }
+
+    @Test
+    void nodeLocalOffsetsGoAwayWithTheirNode() {
+        outboxDispatcher.dispatch();
+        assertTrue(outboxOffsetRepository.findById("local@this-node").orElseThrow().getNodeLocal());
+        // Left behind by a node that crashed an hour and a half ago
+        outboxOffsetRepository.save(new OutboxOffset("local@crashed-node", 0L, true,
+                Instant.now().minus(Duration.ofMinutes(90))));
+
+        outboxDispatcher.purgeDelivered();
+        assertFalse(outboxOffsetRepository.existsById("local@crashed-node"));
+        assertTrue(outboxOffsetRepository.existsById("local@this-node"));
+        assertTrue(outboxOffsetRepository.existsById("reminders"));
+
+        outboxDispatcher.releaseNodeLocalOffsets();
+        assertFalse(outboxOffsetRepository.existsById("local@this-node"));
+        assertTrue(outboxOffsetRepository.existsById("reminders"));
+    }
+
+    private BookingDTO booking(LocalDateTime at) {
+        return new BookingDTO(consumer.getClient_id().intValue(), service.getService_id(), null, at, true, null);
+    }
+}
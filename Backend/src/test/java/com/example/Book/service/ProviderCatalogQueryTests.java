@@ -0,0 +1,120 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.example.Book.dto.ServiceProviderDTO;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Guards against the catalog falling back to one services query per provider, and against
+// snapshot hits reaching the database
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ BookingService.class, CatalogService.class, AvailabilityService.class, GroupCapacityService.class,
+        OutboxService.class, SlotHoldService.class })
+class ProviderCatalogQueryTests {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seedCatalog() {
+        for (int i = 0; i < 25; i++) {
+            ServiceProvider provider = new ServiceProvider();
+            provider.setUsername("provider" + i);
+            provider.setEmail("provider" + i + "@example.com");
+            provider.setExperience(i);
+            entityManager.persist(provider);
+            entityManager.persist(service(provider, i % 2 == 0 ? "Doctor" : "Teacher"));
+            entityManager.persist(service(provider, "Fitness"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void fullCatalogUsesTwoQueries() {
+        List<ServiceProviderDTO> providers = bookingService.getAllServiceProvidersWithServices();
+
+        assertEquals(25, providers.size());
+        assertEquals(2, providers.get(0).getServices().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void filteredPageUsesConstantQueries() {
+        Page<ServiceProviderDTO> page = bookingService.getServiceProviderCatalog("Doctor",
+                PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "experience")));
+
+        assertEquals(13, page.getTotalElements());
+        assertEquals(5, page.getContent().size());
+        assertEquals(14, page.getContent().get(0).getExperience());
+        assertEquals(2, page.getContent().get(0).getServices().size());
+        // page, count and services
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void snapshotHitsSkipTheDatabaseAndChangesReplaceOneProvider() {
+        CatalogService.Snapshot first = catalogService.current();
+        statistics.clear();
+        assertSame(first, catalogService.current());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        ServiceProvider provider = entityManager.find(ServiceProvider.class, first.providers().get(3).getProviderId());
+        entityManager.persist(service(provider, "Doctor"));
+        entityManager.flush();
+        statistics.clear();
+        catalogService.onProviderChanged(new CatalogService.ProviderChanged(provider.getProvider_id()));
+
+        CatalogService.Snapshot second = catalogService.current();
+        assertEquals(first.version() + 1, second.version());
+        assertNotEquals(first.etag(), second.etag());
+        assertEquals(3, second.providers().get(3).getServices().size());
+        assertEquals(2, second.providers().get(4).getServices().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private static Services service(ServiceProvider provider, String category) {
+        Services service = new Services();
+        service.setProvider(provider);
+        service.setName(category + " session");
+        service.setCategory(category);
+        service.setPrice(10.0);
+        return service;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.dto.BookingDTO;
+import com.example.Book.dto.DailyStatsDTO;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.AuthenticatedUser;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ProviderDailyStats;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.model.UserIdentity;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.OutboxEventRepository;
+import com.example.Book.repo.OutboxOffsetRepository;
+import com.example.Book.repo.ProviderDailyStatsRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class, OutboxDispatcher.class, ProviderStatsService.class })
+class ProviderStatsTests {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+    private static final LocalDateTime MORNING = DAY.atTime(9, 0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ProviderStatsService providerStatsService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private ProviderDailyStatsRepository providerDailyStatsRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    private ServiceProvider provider;
+    private Services service;
+    private Consumer consumer;
+
+    @BeforeEach
+    void seed() {
+        provider = new ServiceProvider();
+        provider.setUsername("physio");
+        provider.setEmail("physio@example.com");
+        serviceProviderRepository.save(provider);
+
+        service = new Services();
+        service.setProvider(provider);
+        service.setName("Massage");
+        service.setPrice(40.0);
+        serviceRepository.save(service);
+
+        consumer = new Consumer();
+        consumer.setUsername("runner");
+        consumer.setEmail("runner@example.com");
+        consumerRepository.save(consumer);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        providerDailyStatsRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        outboxOffsetRepository.deleteAll();
+        bookingRepository.deleteAll();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void rollupFollowsBookingsAndCancellations() {
+        Booking first = bookingService.saveBooking(booking(MORNING));
+        bookingService.saveBooking(booking(MORNING.plusHours(2)));
+        bookingService.saveBooking(booking(MORNING.plusDays(1)));
+        AuthenticatedUser caller = new AuthenticatedUser(consumer.getEmail(), "", List.of(), consumer.getClient_id(),
+                UserIdentity.CONSUMER, consumer.getUsername());
+        bookingService.cancelBooking(first.getBookingId(), caller);
+        assertThrows(BookingConflictException.class, () -> bookingService.cancelBooking(first.getBookingId(), caller));
+        // The cancelled slot can be booked again
+        bookingService.saveBooking(booking(MORNING));
+        outboxDispatcher.dispatch();
+
+        List<DailyStatsDTO> days = providerStatsService.getStats(provider.getProvider_id(), DAY, DAY.plusDays(1),
+                ProviderStatsService.Grouping.DAY);
+        assertEquals(2, days.size());
+        assertTotals(days.get(0), 2, 1, "80.00");
+        assertTotals(days.get(1), 1, 0, "40.00");
+
+        List<DailyStatsDTO> services = providerStatsService.getStats(provider.getProvider_id(), DAY, DAY.plusDays(1),
+                ProviderStatsService.Grouping.SERVICE);
+        assertEquals(1, services.size());
+        assertTotals(services.get(0), 3, 1, "120.00");
+    }
+
+    @Test
+    void reconciliationRepairsDriftWithoutCountingUndeliveredBookingsTwice() {
+        bookingService.saveBooking(booking(MORNING));
+        outboxDispatcher.dispatch();
+        ProviderDailyStats stats = providerDailyStatsRepository.findAll().get(0);
+        stats.setBookingCount(99L);
+        providerDailyStatsRepository.save(stats);
+
+        // Committed, but its event has not been delivered when the reconciliation runs
+        bookingService.saveBooking(booking(MORNING.plusHours(1)));
+        assertEquals(1, providerStatsService.reconcile(DAY.minusDays(40), DAY));
+        outboxDispatcher.dispatch();
+
+        List<DailyStatsDTO> rows = providerStatsService.getStats(provider.getProvider_id(), DAY, DAY,
+                ProviderStatsService.Grouping.NONE);
+        assertEquals(1, rows.size());
+        assertTotals(rows.get(0), 2, 0, "80.00");
+        assertEquals(0, providerStatsService.reconcile(DAY.minusDays(40), DAY));
+    }
+
+    private static void assertTotals(DailyStatsDTO row, long bookings, long cancelled, String revenue) {
+        assertEquals(bookings, row.getBookingCount());
+        assertEquals(cancelled, row.getCancelledCount());
+        assertEquals(0, new BigDecimal(revenue).compareTo(row.getRevenue()), "revenue " + row.getRevenue());
+    }
+
+    private BookingDTO booking(LocalDateTime at) {
+        return new BookingDTO(consumer.getClient_id().intValue(), service.getService_id(), null, at, true, null);
+    }
+}
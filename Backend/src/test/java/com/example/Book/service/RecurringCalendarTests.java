@@ -0,0 +1,149 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.dto.BookingDTO;
+import com.example.Book.dto.CalendarEntryDTO;
+import com.example.Book.dto.RecurrenceExceptionDTO;
+import com.example.Book.dto.RecurringAppointmentDTO;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.RecurrenceExceptionRepository;
+import com.example.Book.repo.RecurringAppointmentRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+
+// Commits for real so the availability index is invalidated as it would be in production
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class, RecurrenceService.class })
+class RecurringCalendarTests {
+
+    private static final LocalDateTime FIRST = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RecurrenceService recurrenceService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RecurringAppointmentRepository recurringAppointmentRepository;
+
+    @Autowired
+    private RecurrenceExceptionRepository recurrenceExceptionRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    private ServiceProvider provider;
+    private Services service;
+    private Consumer regular;
+    private Consumer walkIn;
+    private Integer recurrenceId;
+
+    @BeforeEach
+    void seed() {
+        provider = new ServiceProvider();
+        provider.setUsername("physio");
+        provider.setEmail("physio@example.com");
+        serviceProviderRepository.save(provider);
+
+        service = new Services();
+        service.setProvider(provider);
+        service.setName("Therapy");
+        serviceRepository.save(service);
+
+        regular = consumer("regular");
+        walkIn = consumer("walkin");
+
+        Booking first = bookingService.saveBooking(booking(regular, FIRST));
+        bookingService.saveBooking(booking(walkIn, FIRST.plusDays(1)));
+        recurrenceId = recurrenceService.createSeries(new RecurringAppointmentDTO(first.getBookingId(), "weekly", null)).getRecurrenceId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recurrenceExceptionRepository.deleteAll();
+        recurringAppointmentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void calendarMergesBookingsWithExpandedOccurrences() {
+        List<CalendarEntryDTO> entries = calendar();
+
+        assertEquals(List.of(FIRST, FIRST.plusDays(1), FIRST.plusWeeks(1), FIRST.plusWeeks(2), FIRST.plusWeeks(3)),
+                entries.stream().map(CalendarEntryDTO::getStart).toList());
+        assertNull(entries.get(0).getRecurrenceId());
+        assertEquals(recurrenceId, entries.get(2).getRecurrenceId());
+        assertEquals(regular.getClient_id(), entries.get(2).getConsumerId());
+        assertEquals(2, bookingRepository.count());
+    }
+
+    @Test
+    void occurrencesBlockBookingsUntilCancelledOrMoved() {
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(booking(walkIn, FIRST.plusWeeks(1))));
+
+        recurrenceService.addException(new RecurrenceExceptionDTO(recurrenceId, FIRST.plusWeeks(1), null));
+        recurrenceService.addException(new RecurrenceExceptionDTO(recurrenceId, FIRST.plusWeeks(2), FIRST.plusWeeks(2).plusHours(3)));
+
+        assertNotNull(bookingService.saveBooking(booking(walkIn, FIRST.plusWeeks(1))));
+        assertNotNull(bookingService.saveBooking(booking(walkIn, FIRST.plusWeeks(2))));
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(booking(walkIn, FIRST.plusWeeks(2).plusHours(3))));
+
+        List<CalendarEntryDTO> entries = calendar();
+        assertEquals(List.of(FIRST, FIRST.plusDays(1), FIRST.plusWeeks(1), FIRST.plusWeeks(2), FIRST.plusWeeks(2).plusHours(3), FIRST.plusWeeks(3)),
+                entries.stream().map(CalendarEntryDTO::getStart).toList());
+        assertEquals(walkIn.getClient_id(), entries.get(2).getConsumerId());
+        assertEquals(recurrenceId, entries.get(4).getRecurrenceId());
+    }
+
+    private List<CalendarEntryDTO> calendar() {
+        return recurrenceService.calendar(provider.getProvider_id(), FIRST, FIRST.plusWeeks(4).minusHours(1)).toList();
+    }
+
+    private Consumer consumer(String name) {
+        Consumer consumer = new Consumer();
+        consumer.setUsername(name);
+        consumer.setEmail(name + "@example.com");
+        return consumerRepository.save(consumer);
+    }
+
+    private BookingDTO booking(Consumer consumer, LocalDateTime at) {
+        return new BookingDTO(consumer.getClient_id().intValue(), service.getService_id(), null, at, true, null);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.Reminder;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.ReminderRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ReminderService.class, ReminderScheduler.class })
+class ReminderSchedulerTests {
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    private final Map<Integer, Long> sentAtMillis = new ConcurrentHashMap<>();
+    private final CountDownLatch sent = new CountDownLatch(1);
+    private Booking booking;
+
+    @BeforeEach
+    void seed() {
+        doAnswer(invocation -> {
+            sentAtMillis.put(invocation.<Reminder>getArgument(0).getReminderId(), System.currentTimeMillis());
+            sent.countDown();
+            return null;
+        }).when(notificationService).sendNotification(any());
+
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("barber");
+        provider.setEmail("barber@example.com");
+        serviceProviderRepository.save(provider);
+
+        Services service = new Services();
+        service.setProvider(provider);
+        service.setName("Haircut");
+        serviceRepository.save(service);
+
+        Consumer consumer = new Consumer();
+        consumer.setUsername("customer");
+        consumer.setEmail("customer@example.com");
+        consumerRepository.save(consumer);
+
+        booking = new Booking();
+        booking.setConsumer(consumer);
+        booking.setServices(service);
+        booking.setBookingDateTime(LocalDateTime.now().plusHours(3));
+        booking.setStatus(true);
+        bookingRepository.save(booking);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reminderRepository.deleteAll();
+        bookingRepository.deleteAll();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void remindersFireAtTheirTimeAndFollowUpdatesAndDeletes() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        Reminder first = reminderService.createReminder(reminder(now.plusSeconds(1)));
+        Reminder moved = reminderService.createReminder(reminder(now.plusSeconds(2)));
+        Reminder deleted = reminderService.createReminder(reminder(now.plusSeconds(2)));
+
+        // Moved out of the horizon, so the sweep will pick it up later
+        reminderService.updateReminder(moved.getReminderId(), reminder(now.plusHours(2)));
+        reminderService.deleteReminder(deleted.getReminderId());
+
+        assertTrue(sent.await(3, TimeUnit.SECONDS));
+        long dueMillis = first.getReminderDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long sentAt = sentAtMillis.get(first.getReminderId());
+        assertTrue(sentAt >= dueMillis, "sent " + (dueMillis - sentAt) + " ms early");
+        assertTrue(sentAt - dueMillis < 1_000, "sent " + (sentAt - dueMillis) + " ms late");
+
+        // Past the original time of the other two
+        Thread.sleep(Math.max(0, dueMillis + 1_300 - System.currentTimeMillis()));
+        verify(notificationService, times(1)).sendNotification(any());
+        assertEquals("SENT", reminderRepository.findById(first.getReminderId()).orElseThrow().getStatus());
+        assertEquals("PENDING", reminderRepository.findById(moved.getReminderId()).orElseThrow().getStatus());
+        assertEquals(0, reminderScheduler.scheduledCount());
+    }
+
+    @Test
+    void sweepRecoversMissedRemindersAndSendsEachOnce() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        // Saved without events, as if by a node that went away
+        Reminder missed = reminderRepository.save(reminder(now.minusMinutes(10)));
+        Reminder tooLate = reminderRepository.save(reminder(now.minusHours(3)));
+        Reminder later = reminderRepository.save(reminder(now.plusHours(3)));
+
+        assertEquals(1, reminderScheduler.sweep());
+        assertTrue(sent.await(3, TimeUnit.SECONDS));
+        // Once the send has committed, the sweep finds nothing left to do
+        Thread.sleep(200);
+        assertEquals(0, reminderScheduler.sweep());
+
+        verify(notificationService, times(1)).sendNotification(any());
+        assertEquals("SENT", reminderRepository.findById(missed.getReminderId()).orElseThrow().getStatus());
+        assertEquals("PENDING", reminderRepository.findById(tooLate.getReminderId()).orElseThrow().getStatus());
+        assertEquals("PENDING", reminderRepository.findById(later.getReminderId()).orElseThrow().getStatus());
+    }
+
+    private Reminder reminder(LocalDateTime at) {
+        Reminder reminder = new Reminder();
+        reminder.setBooking(booking);
+        reminder.setDescription("Haircut soon");
+        reminder.setReminderDateTime(at);
+        reminder.setStatus("PENDING");
+        return reminder;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Book.dto.ScheduleDTO;
+import com.example.Book.dto.ServiceDateTimeDTO;
+import com.example.Book.model.Schedule;
+import com.example.Book.model.ServiceDateTime;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.repo.ScheduleRepository;
+import com.example.Book.repo.ServiceDateTimeRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class })
+class ScheduleRangeQueryTests {
+
+    private static final int PROVIDERS = 3;
+    // Three years of history and two more months ahead, two schedule entries a day
+    private static final int HISTORY_DAYS = 3 * 365;
+    private static final int FUTURE_DAYS = 60;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ServiceDateTimeRepository serviceDateTimeRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<ServiceProvider> providers = new ArrayList<>();
+    private final List<Services> services = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int p = 0; p < PROVIDERS; p++) {
+            ServiceProvider provider = new ServiceProvider();
+            provider.setUsername("clinic" + p);
+            provider.setEmail("clinic" + p + "@example.com");
+            serviceProviderRepository.save(provider);
+            providers.add(provider);
+
+            Services service = new Services();
+            service.setProvider(provider);
+            service.setName("Checkup " + p);
+            serviceRepository.save(service);
+            services.add(service);
+
+            List<Schedule> schedules = new ArrayList<>();
+            List<ServiceDateTime> windows = new ArrayList<>();
+            for (int d = -HISTORY_DAYS; d < FUTURE_DAYS; d++) {
+                LocalDate day = TODAY.plusDays(d);
+                schedules.add(new Schedule(null, provider, day.atTime(9, 0)));
+                schedules.add(new Schedule(null, provider, day.atTime(14, 0)));
+                windows.add(new ServiceDateTime(null, day.toString(), null, day.atTime(9, 0), day.atTime(17, 0), 30, service));
+            }
+            scheduleRepository.saveAll(schedules);
+            serviceDateTimeRepository.saveAll(windows);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        scheduleRepository.deleteAllInBatch();
+        serviceDateTimeRepository.deleteAllInBatch();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+    }
+
+    @Test
+    void rangeQueriesReturnOnlyTheRequestedDaysInPages() {
+        Long providerId = providers.get(1).getProvider_id();
+        LocalDateTime from = TODAY.atStartOfDay();
+
+        Page<ScheduleDTO> first = bookingService.getSchedulesByProviderId(providerId, from, from.plusDays(14), PageRequest.of(0, 10));
+        assertEquals(28, first.getTotalElements());
+        assertEquals(10, first.getContent().size());
+        assertEquals(TODAY.atTime(9, 0), first.getContent().get(0).getDateTime());
+        assertTrue(first.getContent().stream().allMatch(s -> providerId.equals(s.getProviderId())));
+        Page<ScheduleDTO> last = bookingService.getSchedulesByProviderId(providerId, from, from.plusDays(14), PageRequest.of(2, 10));
+        assertEquals(8, last.getContent().size());
+        assertEquals(TODAY.plusDays(13).atTime(14, 0), last.getContent().get(7).getDateTime());
+
+        // A past week
+        LocalDateTime monday = TODAY.minusYears(2).with(DayOfWeek.MONDAY).atStartOfDay();
+        Page<ServiceDateTimeDTO> week = bookingService.getServiceDateTimeByProviderId(providerId, monday, monday.plusDays(7),
+                PageRequest.of(0, 50));
+        assertEquals(7, week.getTotalElements());
+        assertEquals(monday.withHour(9), week.getContent().get(0).getStartTime());
+
+        assertEquals(0, bookingService.getSchedulesByProviderId(-1L, from, from.plusDays(14), PageRequest.of(0, 10))
+                .getTotalElements());
+    }
+
+    @Test
+    void rangeQueriesUseTheCompositeIndexesAndBeatFullHistoryReads() {
+        assertTrue(plan("SELECT * FROM schedule WHERE provider_id = 1 AND date_time >= NOW() AND date_time < NOW()")
+                .contains("IX_SCHEDULE_PROVIDER_TIME"));
+        assertTrue(plan("SELECT * FROM service_date_time WHERE service_id = 1 AND start_time >= NOW() AND start_time < NOW()")
+                .contains("IX_SERVICE_DATE_TIME_SERVICE_START"));
+
+        ServiceProvider provider = providers.get(2);
+        LocalDateTime from = TODAY.atStartOfDay();
+        int rounds = 20;
+        // Warm up both paths before timing
+        scheduleRepository.findByProvider(provider);
+        bookingService.getSchedulesByProviderId(provider.getProvider_id(), from, from.plusDays(14), PageRequest.of(0, 50));
+
+        long fullStart = System.nanoTime();
+        int fullRows = 0;
+        for (int i = 0; i < rounds; i++) {
+            fullRows = scheduleRepository.findByProvider(provider).size()
+                    + serviceDateTimeRepository.findByProviderId(provider.getProvider_id()).size();
+        }
+        long fullNanos = System.nanoTime() - fullStart;
+
+        long rangeStart = System.nanoTime();
+        int rangeRows = 0;
+        for (int i = 0; i < rounds; i++) {
+            rangeRows = bookingService.getSchedulesByProviderId(provider.getProvider_id(), from, from.plusDays(14),
+                    PageRequest.of(0, 50)).getContent().size()
+                    + bookingService.getServiceDateTimeByProviderId(provider.getProvider_id(), from, from.plusDays(14),
+                    PageRequest.of(0, 50)).getContent().size();
+        }
+        long rangeNanos = System.nanoTime() - rangeStart;
+
+        System.out.printf("Provider schedule reads: full history %.2f ms (%d rows), next 14 days %.2f ms (%d rows)%n",
+                fullNanos / 1e6 / rounds, fullRows, rangeNanos / 1e6 / rounds, rangeRows);
+        assertEquals((HISTORY_DAYS + FUTURE_DAYS) * 3, fullRows);
+        assertEquals(42, rangeRows);
+        assertTrue(rangeNanos < fullNanos, "range reads took " + rangeNanos + " ns, full reads " + fullNanos + " ns");
+    }
+
+    @Test
+    void dayAndWeekLookupsSeekTheTypedServiceDate() {
+        assertTrue(plan("SELECT * FROM service_date_time WHERE service_date BETWEEN CURRENT_DATE AND CURRENT_DATE")
+                .contains("IX_SERVICE_DATE_TIME_DAY"));
+
+        Long providerId = providers.get(0).getProvider_id();
+        LocalDate day = TODAY.minusDays(400);
+        List<ServiceDateTimeDTO> windows = bookingService.getServiceDateTimesForDay(providerId, day);
+        assertEquals(1, windows.size());
+        assertEquals(day, windows.get(0).getServiceDate());
+        assertEquals(day.toString(), windows.get(0).getDate());
+
+        List<ServiceDateTimeDTO> week = bookingService.getServiceDateTimesForWeek(providerId, TODAY.minusYears(1));
+        assertEquals(7, week.size());
+        assertEquals(DayOfWeek.MONDAY, week.get(0).getServiceDate().getDayOfWeek());
+        assertEquals(DayOfWeek.SUNDAY, week.get(6).getServiceDate().getDayOfWeek());
+
+        // Rows with only the legacy string get their day from it when it is an ISO date
+        LocalDate legacyDay = TODAY.plusYears(5);
+        serviceDateTimeRepository.save(new ServiceDateTime(null, legacyDay.toString(), null, null, null, 30, services.get(0)));
+        serviceDateTimeRepository.save(new ServiceDateTime(null, "next Tuesday", null, null, null, 30, services.get(0)));
+        List<ServiceDateTimeDTO> legacy = bookingService.getServiceDateTimesForDay(providerId, legacyDay);
+        assertEquals(1, legacy.size());
+        assertEquals(legacyDay.toString(), legacy.get(0).getDate());
+    }
+
+    @Test
+    void rowsSavedBeforeServiceDateExistedAreFoundByDayAfterStartup() {
+        Long providerId = providers.get(0).getProvider_id();
+        LocalDate legacyDay = TODAY.plusYears(5);
+        serviceDateTimeRepository.save(new ServiceDateTime(null, legacyDay.toString(), null, null, null, 30, services.get(0)));
+        serviceDateTimeRepository.save(new ServiceDateTime(null, "next Tuesday", null, null, null, 30, services.get(0)));
+        // As left behind by a version without the column
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createNativeQuery("UPDATE service_date_time SET service_date = NULL").executeUpdate());
+        LocalDate day = TODAY.minusDays(400);
+        assertTrue(bookingService.getServiceDateTimesForDay(providerId, day).isEmpty());
+
+        bookingService.backfillServiceDates();
+
+        List<ServiceDateTimeDTO> windows = bookingService.getServiceDateTimesForDay(providerId, day);
+        assertEquals(1, windows.size());
+        assertEquals(day, windows.get(0).getServiceDate());
+        assertEquals(7, bookingService.getServiceDateTimesForWeek(providerId, TODAY.minusYears(1)).size());
+        List<ServiceDateTimeDTO> legacy = bookingService.getServiceDateTimesForDay(providerId, legacyDay);
+        assertEquals(1, legacy.size());
+        assertEquals(legacyDay.toString(), legacy.get(0).getDate());
+    }
+
+    private String plan(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult()).toUpperCase();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.dto.BookingDTO;
+import com.example.Book.dto.SlotHoldDTO;
+import com.example.Book.exception.BookingAccessException;
+import com.example.Book.exception.BookingConflictException;
+import com.example.Book.model.AuthenticatedUser;
+import com.example.Book.model.Booking;
+import com.example.Book.model.Consumer;
+import com.example.Book.model.ServiceProvider;
+import com.example.Book.model.Services;
+import com.example.Book.model.SlotHold;
+import com.example.Book.model.UserIdentity;
+import com.example.Book.repo.BookingRepository;
+import com.example.Book.repo.ConsumerRepository;
+import com.example.Book.repo.OutboxEventRepository;
+import com.example.Book.repo.ServiceProviderRepository;
+import com.example.Book.repo.ServiceRepository;
+import com.example.Book.repo.SlotHoldRepository;
+
+@DataJpaTest(properties = { "slot-hold.ttl=2s", "slot-hold.tick-ms=100" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BookingService.class, AvailabilityService.class, GroupCapacityService.class, OutboxService.class,
+        SlotHoldService.class })
+class SlotHoldTests {
+
+    private static final LocalDateTime SLOT = LocalDateTime.now().plusDays(1).withHour(14).withMinute(0).withSecond(0).withNano(0);
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SlotHoldRepository slotHoldRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ConsumerRepository consumerRepository;
+
+    private Services service;
+    private Consumer shopper;
+    private Consumer other;
+
+    @BeforeEach
+    void seed() {
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("tailor");
+        provider.setEmail("tailor@example.com");
+        serviceProviderRepository.save(provider);
+
+        service = new Services();
+        service.setProvider(provider);
+        service.setName("Fitting");
+        serviceRepository.save(service);
+
+        shopper = consumer("shopper");
+        other = consumer("other");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        slotHoldRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        serviceRepository.deleteAll();
+        serviceProviderRepository.deleteAll();
+        consumerRepository.deleteAll();
+    }
+
+    @Test
+    void heldSlotIsOnlyBookableOnceByItsHolder() {
+        SlotHold hold = slotHoldService.hold(new SlotHoldDTO(shopper.getClient_id().intValue(), service.getService_id(), SLOT));
+
+        assertThrows(BookingConflictException.class, () -> slotHoldService.hold(
+                new SlotHoldDTO(other.getClient_id().intValue(), service.getService_id(), SLOT.plusMinutes(30))));
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(booking(other, null)));
+
+        Booking booked = bookingService.saveBooking(booking(shopper, hold.getHoldId()));
+        assertEquals(SLOT, booked.getBookingDateTime());
+        assertEquals(0, slotHoldRepository.count());
+        assertThrows(BookingConflictException.class, () -> bookingService.saveBooking(booking(shopper, hold.getHoldId())));
+    }
+
+    @Test
+    void expiredAndReleasedHoldsFreeTheSlot() throws InterruptedException {
+        slotHoldService.hold(new SlotHoldDTO(shopper.getClient_id().intValue(), service.getService_id(), SLOT));
+        SlotHold later = slotHoldService.hold(new SlotHoldDTO(shopper.getClient_id().intValue(), service.getService_id(), SLOT.plusHours(2)));
+
+        slotHoldService.release(later.getHoldId(), caller(shopper));
+        bookingService.saveBooking(new BookingDTO(other.getClient_id().intValue(), service.getService_id(), null,
+                SLOT.plusHours(2), true, null));
+
+        slotHoldService.expireDue();
+        assertEquals(1, slotHoldRepository.count());
+        Thread.sleep(2_300);
+        slotHoldService.expireDue();
+        assertEquals(0, slotHoldRepository.count());
+        assertTrue(bookingService.saveBooking(booking(other, null)).getBookingId() != null);
+    }
+
+    @Test
+    void onlyTheHolderCanConfirmOrReleaseAHold() {
+        SlotHold hold = slotHoldService.hold(new SlotHoldDTO(shopper.getClient_id().intValue(), service.getService_id(), SLOT));
+
+        BookingAccessException foreign = assertThrows(BookingAccessException.class,
+                () -> slotHoldService.getHold(hold.getHoldId(), caller(other)));
+        assertEquals(HttpStatus.FORBIDDEN, foreign.getStatus());
+        assertThrows(BookingAccessException.class, () -> slotHoldService.release(hold.getHoldId(), caller(other)));
+        assertEquals(HttpStatus.UNAUTHORIZED, assertThrows(BookingAccessException.class,
+                () -> slotHoldService.release(hold.getHoldId(), null)).getStatus());
+        assertEquals(1, slotHoldRepository.count());
+
+        assertEquals(shopper.getClient_id(), slotHoldService.getHold(hold.getHoldId(), caller(shopper)).getConsumerId());
+        slotHoldService.release(hold.getHoldId(), caller(shopper));
+        assertEquals(0, slotHoldRepository.count());
+    }
+
+    private BookingDTO booking(Consumer consumer, Long holdId) {
+        return new BookingDTO(consumer.getClient_id().intValue(), service.getService_id(), null, SLOT, true, holdId);
+    }
+
+    private static AuthenticatedUser caller(Consumer consumer) {
+        return new AuthenticatedUser(consumer.getEmail(), "", List.of(), consumer.getClient_id(), UserIdentity.CONSUMER,
+                consumer.getUsername());
+    }
+
+    private Consumer consumer(String name) {
+        Consumer consumer = new Consumer();
+        consumer.setUsername(name);
+        consumer.setEmail(name + "@example.com");
+        return consumerRepository.save(consumer);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.Book.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Book.repo.RevokedTokenRepository;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationServiceTests {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @AfterEach
+    void cleanUp() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void secondSubjectRevocationReachesOtherNodes() throws InterruptedException {
+        TokenRevocationService changedOn = node();
+        TokenRevocationService other = node();
+
+        changedOn.revokeAllForSubject(EMAIL);
+        other.sync();
+        // Issued in the second of the first password change, so that change lets it through
+        long firstChange = revokedTokenRepository.findAll().get(0).getRevokedAt().toEpochMilli();
+        Claims token = Jwts.claims().subject(EMAIL).issuedAt(new Date(firstChange / 1000 * 1000)).build();
+        assertFalse(other.isRevoked(token));
+
+        Thread.sleep(1_100);
+        changedOn.revokeAllForSubject(EMAIL);
+        other.sync();
+
+        assertTrue(changedOn.isRevoked(token));
+        assertTrue(other.isRevoked(token));
+    }
+
+    private TokenRevocationService node() {
+        TokenRevocationService node = new TokenRevocationService(1_000, 0.01, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(node, "revokedTokenRepository", revokedTokenRepository);
+        node.load();
+        return node;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.Book.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class DayBitmapTests {
+
+    @Test
+    void findsRunsAcrossWordBoundaries() {
+        // Open 05:00-06:00 (slots 60-72), which straddles the first and second word
+        long[] open = DayBitmap.with(DayBitmap.empty(), 60, 72, true);
+
+        long[] starts = DayBitmap.runStarts(open, 6);
+        assertEquals(60, DayBitmap.nextSetBit(starts, 0));
+        assertEquals(66, DayBitmap.nextSetBit(starts, 61 + 5));
+        assertEquals(-1, DayBitmap.nextSetBit(starts, 67));
+        assertEquals(-1, DayBitmap.nextSetBit(DayBitmap.runStarts(open, 13), 0));
+    }
+
+    @Test
+    void busySlotsSplitOpenRuns() {
+        long[] open = DayBitmap.with(DayBitmap.empty(), 108, 144, true);
+        long[] busy = DayBitmap.with(DayBitmap.empty(), 114, 120, true);
+
+        long[] starts = DayBitmap.runStarts(DayBitmap.free(open, busy), 12);
+        assertEquals(120, DayBitmap.nextSetBit(starts, 0));
+
+        long[] shortRuns = DayBitmap.runStarts(DayBitmap.free(open, busy), 6);
+        assertEquals(108, DayBitmap.nextSetBit(shortRuns, 0));
+        assertEquals(120, DayBitmap.nextSetBit(shortRuns, 109));
+    }
+
+    @Test
+    void lastSlotOfTheDayIsUsable() {
+        long[] open = DayBitmap.with(DayBitmap.empty(), DayBitmap.SLOTS - 3, DayBitmap.SLOTS, true);
+        assertEquals(DayBitmap.SLOTS - 3, DayBitmap.nextSetBit(DayBitmap.runStarts(open, 3), 0));
+        assertEquals(-1, DayBitmap.nextSetBit(DayBitmap.runStarts(open, 4), 0));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.Book.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class IntervalSetTests {
+
+    @Test
+    void detectsOverlapsButNotTouchingIntervals() {
+        IntervalSet set = new IntervalSet();
+        set.add(1, 100, 200);
+        set.add(2, 300, 330);
+
+        assertTrue(set.overlaps(150, 160));
+        assertTrue(set.overlaps(50, 101));
+        assertTrue(set.overlaps(199, 301));
+        assertFalse(set.overlaps(200, 300));
+        assertFalse(set.overlaps(0, 100));
+    }
+
+    @Test
+    void longIntervalsAreFoundFromLaterStarts() {
+        IntervalSet set = new IntervalSet();
+        set.add(1, 0, 10_000);
+        for (int i = 0; i < 100; i++) {
+            set.add(10 + i, 20_000 + i * 10, 20_000 + i * 10 + 5);
+        }
+        assertTrue(set.overlaps(9_000, 9_001));
+        assertEquals(10_000, set.latestOverlappingEnd(5_000, 9_999));
+    }
+
+    @Test
+    void firstFreeStartSkipsBackToBackBookings() {
+        IntervalSet set = new IntervalSet();
+        set.add(1, 0, 60);
+        set.add(2, 60, 120);
+        set.add(3, 150, 200);
+
+        assertEquals(120, set.firstFreeStart(0, 30));
+        assertEquals(200, set.firstFreeStart(0, 31));
+    }
+
+    @Test
+    void removeAndRenameKeepTheIndexConsistent() {
+        IntervalSet set = new IntervalSet();
+        set.add(-1, 0, 60);
+        set.rename(-1, 42);
+        assertTrue(set.overlaps(10, 20));
+        assertFalse(set.remove(-1));
+        assertTrue(set.remove(42));
+        assertFalse(set.overlaps(10, 20));
+        assertEquals(0, set.size());
+    }
+}
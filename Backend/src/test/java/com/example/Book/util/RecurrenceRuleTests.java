@@ -0,0 +1,47 @@
+package com.example.Book.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RecurrenceRuleTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 31, 10, 0);
+
+    @Test
+    void monthlyOccurrencesKeepTheirDayOfMonth() {
+        RecurrenceRule rule = RecurrenceRule.of("monthly", START, null);
+
+        assertEquals(List.of(LocalDateTime.of(2024, 2, 29, 10, 0), LocalDateTime.of(2024, 3, 31, 10, 0),
+                        LocalDateTime.of(2024, 4, 30, 10, 0)),
+                rule.repeats(START, LocalDateTime.of(2024, 5, 1, 0, 0)).toList());
+        assertTrue(rule.isRepeat(LocalDateTime.of(2024, 3, 31, 10, 0)));
+        assertFalse(rule.isRepeat(LocalDateTime.of(2024, 3, 29, 10, 0)));
+    }
+
+    @Test
+    void windowFarIntoAnOpenSeriesStartsAtItsFirstOccurrence() {
+        RecurrenceRule rule = RecurrenceRule.of("DAILY", START, null);
+        LocalDateTime from = LocalDateTime.of(2124, 6, 1, 12, 0);
+
+        List<LocalDateTime> repeats = rule.repeats(from, from.plusDays(3)).toList();
+        assertEquals(List.of(LocalDateTime.of(2124, 6, 2, 10, 0), LocalDateTime.of(2124, 6, 3, 10, 0),
+                LocalDateTime.of(2124, 6, 4, 10, 0)), repeats);
+    }
+
+    @Test
+    void seriesEndIsInclusiveAndTheFirstOccurrenceIsNotARepeat() {
+        RecurrenceRule rule = RecurrenceRule.of("BIWEEKLY", START, START.plusWeeks(4));
+
+        assertEquals(List.of(START.plusWeeks(2), START.plusWeeks(4)), rule.repeats(START.minusDays(1), START.plusYears(1)).toList());
+        assertFalse(rule.isRepeat(START));
+        assertFalse(rule.isRepeat(START.plusWeeks(6)));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.of("HOURLY", START, null));
+    }
+}
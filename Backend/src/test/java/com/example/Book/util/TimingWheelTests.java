@@ -0,0 +1,52 @@
+package com.example.Book.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTests {
+
+    @Test
+    void firesAtTheDeadlineTickAndNeverEarly() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+        // Several turns of an 800 ms wheel away
+        wheel.schedule("c", 2_450);
+
+        // Both fall into tick 3, which starts at 300
+        assertTrue(wheel.advance(299).isEmpty());
+        assertEquals(Set.of("a", "b"), Set.copyOf(wheel.advance(300)));
+        assertTrue(wheel.advance(2_399).isEmpty());
+        assertEquals(List.of("c"), wheel.advance(2_500));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimeoutsDoNotFire() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, 0);
+        TimingWheel.Timeout<Integer> first = wheel.schedule(1, 20);
+        wheel.schedule(2, 20);
+        TimingWheel.Timeout<Integer> third = wheel.schedule(3, 20);
+
+        assertTrue(wheel.cancel(first));
+        assertTrue(wheel.cancel(third));
+        assertFalse(wheel.cancel(third));
+        assertEquals(List.of(2), wheel.advance(1_000));
+        assertFalse(first.isPending());
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 16, 0);
+        wheel.advance(1_000);
+        wheel.schedule("late", 500);
+        assertTrue(wheel.advance(1_099).isEmpty());
+        assertEquals(List.of("late"), wheel.advance(1_100));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Book.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void allowsBurstUpToCapacityThenReportsWait() {
+        TokenBucket bucket = new TokenBucket(3, MINUTE, 0);
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+
+        long wait = bucket.tryConsume(0);
+        assertEquals(MINUTE / 3, wait, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    void refillsOverTimeUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, MINUTE, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(0, bucket.tryConsume(MINUTE / 2));
+        assertTrue(bucket.tryConsume(MINUTE / 2) > 0);
+        // A long idle period refills no more than the capacity
+        assertEquals(0, bucket.tryConsume(MINUTE * 10));
+        assertEquals(0, bucket.tryConsume(MINUTE * 10));
+        assertTrue(bucket.tryConsume(MINUTE * 10) > 0);
+    }
+}